@@ -0,0 +1,158 @@
+import java.util.*;
+
+/**
+ * A* pondéré à amélioration continue (ARA*)
+ *
+ * La recherche démarre avec f = g + w·h pour un poids w élevé, ce qui donne
+ * vite une première solution, puis abaisse w par paliers en réutilisant les
+ * états déjà développés (les états améliorés après leur fermeture sont mis
+ * de côté puis réinjectés au palier suivant). Chaque solution meilleure que
+ * la précédente est signalée dès qu'elle est trouvée; à w = 1 la dernière
+ * est optimale. La recherche s'arrête à l'échéance, signalée comme
+ * dépassement de durée aux limites de la résolution.
+ *
+ * Mode poussées seulement: en mode pas, l'heuristique ajoute la distance du
+ * joueur à la caisse la plus proche et ne minore plus les poussées restantes;
+ * l'élagage g + h >= meilleur coût écarterait alors des branches optimales.
+ */
+class AnytimeSearch implements SearchEngine {
+    
+    static final double INITIAL_WEIGHT = 3.0;
+    static final double WEIGHT_STEP = 0.5;
+    private static final int CLOCK_INTERVAL = 256;     // Expansions entre deux lectures de l'horloge
+    
+    /**
+     * Reçoit chaque solution améliorée et le poids qui l'a produite
+     */
+    interface Listener {
+        void onSolution(SokobanSolver.State goal, double weight);
+    }
+    
+    private final long deadline;
+    private final long maxNodes;
+    private final Listener listener;
+    
+    private final TranspositionTable table = new TranspositionTable(1 << 16);
+    private TranspositionTable closed;
+    private BucketQueue open = new BucketQueue();
+    private List<SokobanSolver.State> inconsistent = new ArrayList<>();
+    private double weight;
+    private SokobanSolver.State best;
+    private int nodesExplored;
+    private ProgressReporter progress = ProgressReporter.NONE;
+    private SearchLimits limits = SearchLimits.unlimited();
+    
+    AnytimeSearch(SokobanSolver.Level level, long deadline, long maxNodes, Listener listener) {
+        if (level.expansion != SokobanSolver.Expansion.PUSHES) {
+            throw new IllegalArgumentException("La recherche ARA* exige le mode poussées");
+        }
+        this.deadline = deadline;
+        this.maxNodes = maxNodes;
+        this.listener = listener;
+    }
+    
+    @Override
+    public SokobanSolver.State search(SokobanSolver.State start) {
+        int h0 = start.heuristic();
+        if (h0 == Integer.MAX_VALUE) return null;
+        
+        weight = INITIAL_WEIGHT;
+        table.store(table.find(start.hash), start.hash, 0, false);
+        start.f = key(start, h0);
+        open.add(start);
+        
+        while (true) {
+            closed = new TranspositionTable(1 << 12);
+            improvePath();
+            if (limits.reason() != null || nodesExplored >= maxNodes || weight <= 1.0) break;
+            
+            // Palier suivant: Open ∪ Incons réordonnés avec le nouveau poids
+            weight = Math.max(1.0, weight - WEIGHT_STEP);
+            BucketQueue next = new BucketQueue();
+            SokobanSolver.State state;
+            while ((state = open.poll()) != null) requeue(state, next);
+            for (SokobanSolver.State s : inconsistent) requeue(s, next);
+            inconsistent = new ArrayList<>();
+            open = next;
+        }
+        return best;
+    }
+    
+    // Développe jusqu'à ce qu'aucun état d'Open ne puisse améliorer la solution courante
+    private void improvePath() {
+        while (!open.isEmpty() && open.minF() < bestCost()) {
+            if (nodesExplored >= maxNodes || limits.exceeded(nodesExplored)) return;
+            if (nodesExplored % CLOCK_INTERVAL == 0 && System.currentTimeMillis() >= deadline) {
+                limits.expire();
+                return;
+            }
+            
+            SokobanSolver.State current = open.poll();
+            int slot = table.find(current.hash);
+            if (table.g(slot) < current.g) continue;
+            int done = closed.find(current.hash);
+            if (done >= 0) continue;
+            closed.store(done, current.hash, current.g, true);
+            nodesExplored++;
+            if (progress.due(nodesExplored)) progress.report(nodesExplored, current.f, open.size(), table.size());
+            
+            if (current.isGoal()) {
+                if (current.g < bestCost()) {
+                    best = current;
+                    listener.onSolution(current, weight);
+                }
+                continue;
+            }
+            
+            for (SokobanSolver.State child : current.getPossibleMoves()) {
+                int prev = table.find(child.hash);
+                if (prev >= 0 && table.g(prev) <= child.g) continue;
+                table.store(prev, child.hash, child.g, false);
+                
+                int h = child.heuristic();
+                if (h == Integer.MAX_VALUE || child.g + h >= bestCost()) continue;
+                child.f = key(child, h);
+                
+                // Déjà fermé pendant ce palier: réexaminé seulement au palier suivant
+                if (closed.find(child.hash) >= 0) {
+                    inconsistent.add(child);
+                } else {
+                    open.add(child);
+                }
+            }
+        }
+    }
+    
+    // Réinsère un état non périmé avec la priorité du poids courant
+    private void requeue(SokobanSolver.State state, BucketQueue target) {
+        int slot = table.find(state.hash);
+        if (slot < 0 || table.g(slot) < state.g) return;
+        int h = state.heuristic();
+        if (state.g + h >= bestCost()) return;
+        state.f = key(state, h);
+        target.add(state);
+    }
+    
+    private int key(SokobanSolver.State state, int h) {
+        return state.g + (int) (weight * h);
+    }
+    
+    private int bestCost() {
+        return best != null ? best.g : Integer.MAX_VALUE;
+    }
+    
+    @Override
+    public void setProgress(ProgressReporter progress) {
+        this.progress = progress;
+    }
+    
+    @Override
+    public void setLimits(SearchLimits limits) {
+        this.limits = limits;
+    }
+    
+    @Override
+    public int getNodesExplored() {
+        return nodesExplored;
+    }
+}
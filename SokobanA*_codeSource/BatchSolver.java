@@ -0,0 +1,161 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Résolution en lot d'une collection de niveaux
+ *
+ * Chaque niveau est résolu par son propre SokobanSolver (aucun état partagé,
+ * affichage désactivé) sur un thread virtuel si la JVM en propose, sinon
+ * sur un pool de taille fixe. Au plus `parallelism` résolutions tournent en
+ * même temps. Les événements d'avancement portent le rang du niveau
+ * (SearchProgress.getLevel). Seule la table de transposition d'A* est bornée
+ * (Options.tableMegabytes): la liste ouverte et les tables des autres
+ * moteurs croissent avec la recherche.
+ *
+ * Chaque résolution dispose d'un budget (voir Budget): une durée, à
+ * l'échéance de laquelle la recherche s'arrête (TIME_LIMIT), et un plafond
+ * facultatif du tas occupé. Le tas étant commun à la JVM, ce plafond vaut
+ * pour le lot entier: une fois dépassé, les résolutions en cours s'arrêtent
+ * (MEMORY_LIMIT) et libèrent leur mémoire avant les suivantes. Les
+ * résultats sont rendus dans l'ordre des niveaux fournis.
+ */
+public final class BatchSolver {
+    
+    private final SokobanSolver.Options options;
+    private final int parallelism;
+    private final long timeLimitMillis;
+    private final long maxHeapBytes;
+    
+    /**
+     * Résultat de la résolution d'un niveau du lot
+     */
+    public static final class Result {
+        private final int index;
+        private final SolveResult result;         // null si la résolution a échoué
+        private final Throwable error;
+        
+        private Result(int index, SolveResult result, Throwable error) {
+            this.index = index;
+            this.result = result;
+            this.error = error;
+        }
+        
+        public int getIndex() {
+            return index;
+        }
+        
+        // Résultat détaillé, null si la résolution a échoué (voir getError)
+        public SolveResult getResult() {
+            return result;
+        }
+        
+        public boolean isSolved() {
+            return result != null && result.isSolved();
+        }
+        
+        public boolean isTimedOut() {
+            return result != null && result.getStatus() == SolveResult.Status.TIME_LIMIT;
+        }
+        
+        public boolean isOutOfMemory() {
+            return result != null && result.getStatus() == SolveResult.Status.MEMORY_LIMIT;
+        }
+        
+        // Exception levée par le solveur (grille invalide...), null sinon
+        public Throwable getError() {
+            return error;
+        }
+        
+        public int getPushCount() {
+            return result != null ? result.getPushCount() : 0;
+        }
+        
+        public int getNodesExplored() {
+            return result != null ? result.getNodesExplored() : 0;
+        }
+        
+        public long getSolveTime() {
+            return result != null ? result.getSolveTime() : 0;
+        }
+        
+        public List<String> getSolution() {
+            return result != null ? result.getSolution() : Collections.emptyList();
+        }
+    }
+    
+    // options: paramètres communs à tous les niveaux; timeLimitMillis: budget par niveau;
+    // maxHeapBytes: tas occupé au-delà duquel les résolutions s'arrêtent
+    public BatchSolver(SokobanSolver.Options options, int parallelism, long timeLimitMillis, long maxHeapBytes) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallélisme invalide: " + parallelism);
+        if (maxHeapBytes < 1) throw new IllegalArgumentException("Taille de tas invalide: " + maxHeapBytes);
+        this.options = options.copy().verbose(false);
+        this.parallelism = parallelism;
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxHeapBytes = maxHeapBytes;
+    }
+    
+    // Sans plafond de tas
+    public BatchSolver(SokobanSolver.Options options, int parallelism, long timeLimitMillis) {
+        this(options, parallelism, timeLimitMillis, Long.MAX_VALUE);
+    }
+    
+    // Parallélisme par défaut: un niveau par processeur
+    public BatchSolver(SokobanSolver.Options options, long timeLimitMillis) {
+        this(options, Runtime.getRuntime().availableProcessors(), timeLimitMillis);
+    }
+    
+    // Résout tous les niveaux; les résultats suivent l'ordre de la collection.
+    // Les niveaux sont lus au fil de l'eau (un XsbReader peut les fournir paresseusement).
+    public List<Result> solveAll(Iterable<String[]> levels) {
+        ExecutorService executor = newExecutor();
+        Semaphore slots = new Semaphore(parallelism);
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            int index = 0;
+            for (String[] level : levels) {
+                int i = index++;
+                futures.add(executor.submit(() -> solveOne(i, level, slots)));
+            }
+            
+            List<Result> results = new ArrayList<>(futures.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new Result(i, null, e.getCause()));
+                }
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Lot interrompu");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    // Résout un niveau dans la limite de son budget
+    private Result solveOne(int index, String[] level, Semaphore slots) throws InterruptedException {
+        slots.acquire();
+        try {
+            Budget budget = new Budget().maxMillis(timeLimitMillis).maxHeapBytes(maxHeapBytes);
+            SokobanSolver.Options levelOptions = options.copy();
+            levelOptions.level = index;
+            SolveResult result = new SokobanSolver(level, levelOptions).solve(budget);
+            return new Result(index, result, null);
+        } catch (RuntimeException | OutOfMemoryError e) {
+            return new Result(index, null, e);
+        } finally {
+            slots.release();
+        }
+    }
+    
+    // Threads virtuels (Java 21+) par réflexion, sinon pool borné
+    private ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(parallelism);
+        }
+    }
+}
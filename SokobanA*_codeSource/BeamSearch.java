@@ -0,0 +1,86 @@
+import java.util.*;
+
+/**
+ * Recherche en faisceau: à chaque profondeur de poussée, seuls les k meilleurs
+ * états (f puis h croissants) sont conservés.
+ *
+ * Mémoire strictement bornée: le faisceau courant, ses successeurs et une
+ * table de hachages déjà vus de taille fixe (à remplacement systématique)
+ * qui évite de revisiter les mêmes configurations. La solution n'est pas
+ * garantie optimale, ni trouvée si le faisceau écarte tous les bons états.
+ */
+class BeamSearch implements SearchEngine {
+    
+    private static final int SEEN_BITS = 18;          // 2^18 clés ≈ 2 Mo
+    
+    private final int beamWidth;
+    private final long maxNodes;
+    private final long[] seen = new long[1 << SEEN_BITS];
+    private int nodesExplored;
+    private ProgressReporter progress = ProgressReporter.NONE;
+    private SearchLimits limits = SearchLimits.unlimited();
+    
+    BeamSearch(int beamWidth, long maxNodes) {
+        this.beamWidth = Math.max(1, beamWidth);
+        this.maxNodes = maxNodes;
+    }
+    
+    @Override
+    public SokobanSolver.State search(SokobanSolver.State start) {
+        int h0 = start.heuristic();
+        if (h0 == Integer.MAX_VALUE) return null;
+        start.f = h0;
+        if (start.isGoal()) return start;
+        markSeen(start);
+        
+        List<SokobanSolver.State> beam = Collections.singletonList(start);
+        while (!beam.isEmpty() && nodesExplored < maxNodes && !limits.exceeded(nodesExplored)) {
+            List<SokobanSolver.State> candidates = new ArrayList<>();
+            for (SokobanSolver.State current : beam) {
+                if (limits.exceeded(nodesExplored)) return null;
+                nodesExplored++;
+                if (progress.due(nodesExplored)) {
+                    progress.report(nodesExplored, current.f, beam.size() + candidates.size(), -1);
+                }
+                for (SokobanSolver.State child : current.getPossibleMoves()) {
+                    if (!markSeen(child)) continue;
+                    int h = child.heuristic();
+                    if (h == Integer.MAX_VALUE) continue;
+                    if (child.isGoal()) return child;
+                    child.f = child.g + h;
+                    candidates.add(child);
+                }
+            }
+            
+            // Garde les k meilleurs: f croissant, puis h croissant (g le plus grand)
+            candidates.sort((a, b) -> a.f != b.f ? Integer.compare(a.f, b.f) : Integer.compare(b.g, a.g));
+            beam = candidates.size() > beamWidth
+                ? new ArrayList<>(candidates.subList(0, beamWidth))
+                : candidates;
+        }
+        return null;
+    }
+    
+    // Faux si la clé est déjà dans la table des états vus
+    private boolean markSeen(SokobanSolver.State state) {
+        int slot = (int) ((state.hash * 0x9E3779B97F4A7C15L) >>> (64 - SEEN_BITS));
+        if (seen[slot] == state.hash) return false;
+        seen[slot] = state.hash;
+        return true;
+    }
+    
+    @Override
+    public void setProgress(ProgressReporter progress) {
+        this.progress = progress;
+    }
+    
+    @Override
+    public void setLimits(SearchLimits limits) {
+        this.limits = limits;
+    }
+    
+    @Override
+    public int getNodesExplored() {
+        return nodesExplored;
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.*;
+
+/**
+ * Recherche bidirectionnelle: A* avant sur les poussées, A* arrière sur les
+ * tirages depuis la configuration but (caisses sur les cibles, joueur dans
+ * chacune des zones libres).
+ *
+ * Les deux fronts se rencontrent dans une table partagée indexée par la clé
+ * de Zobrist. Avec des heuristiques cohérentes des deux côtés, la meilleure
+ * rencontre μ est optimale dès que μ ≤ max(min f avant, min f arrière).
+ * L'heuristique arrière apparie les caisses aux positions initiales avec les
+ * distances en poussées depuis ces positions.
+ */
+class BidirectionalSearch implements SearchEngine {
+    
+    private final SokobanSolver.Level level;
+    private final long maxNodes;
+    private final int[][] distanceFromStart;    // [caisse initiale][case] → poussées minimales
+    private final Map<Long, Entry> table = new HashMap<>();
+    
+    private int nodesExplored;
+    private ProgressReporter progress = ProgressReporter.NONE;
+    private SearchLimits limits = SearchLimits.unlimited();
+    private int bestCost = Integer.MAX_VALUE;   // μ: coût de la meilleure rencontre
+    private Entry meeting;
+    
+    // Entrée partagée: meilleur état connu de chaque côté
+    private static final class Entry {
+        SokobanSolver.State forward, backward;
+        boolean forwardClosed, backwardClosed;
+    }
+    
+    BidirectionalSearch(SokobanSolver.Level level, long maxNodes) {
+        if (level.expansion != SokobanSolver.Expansion.PUSHES) {
+            throw new IllegalArgumentException("La recherche bidirectionnelle exige le mode poussées");
+        }
+        this.level = level;
+        this.maxNodes = maxNodes;
+        
+        int[] initialBoxes = new SokobanSolver.State(level).boxCells();
+        // Les configurations but n'existent que si chaque cible reçoit une caisse
+        if (initialBoxes.length != level.targetCount) {
+            throw new IllegalArgumentException("La recherche bidirectionnelle exige autant de caisses que de cibles ("
+                + initialBoxes.length + " caisses, " + level.targetCount + " cibles)");
+        }
+        distanceFromStart = new int[initialBoxes.length][];
+        for (int i = 0; i < initialBoxes.length; i++) {
+            distanceFromStart[i] = level.pushDistancesFrom(initialBoxes[i]);
+        }
+    }
+    
+    @Override
+    public SokobanSolver.State search(SokobanSolver.State start) {
+        BucketQueue forwardOpen = new BucketQueue();
+        BucketQueue backwardOpen = new BucketQueue();
+        
+        int h0 = start.heuristic();
+        if (h0 == Integer.MAX_VALUE) return null;
+        start.f = h0;
+        offer(start, true, forwardOpen);
+        for (SokobanSolver.State root : goalStates()) {
+            int h = backwardHeuristic(root);
+            if (h == Integer.MAX_VALUE) continue;
+            root.f = h;
+            offer(root, false, backwardOpen);
+        }
+        
+        while (!forwardOpen.isEmpty() && !backwardOpen.isEmpty() && nodesExplored < maxNodes
+                && !limits.exceeded(nodesExplored)) {
+            if (bestCost <= Math.max(forwardOpen.minF(), backwardOpen.minF())) break;
+            
+            // Développe le front le plus petit
+            boolean forward = forwardOpen.size() <= backwardOpen.size();
+            BucketQueue open = forward ? forwardOpen : backwardOpen;
+            SokobanSolver.State current = open.poll();
+            
+            Entry entry = table.get(current.hash);
+            if (forward) {
+                if (entry.forward != current || entry.forwardClosed) continue;
+                entry.forwardClosed = true;
+            } else {
+                if (entry.backward != current || entry.backwardClosed) continue;
+                entry.backwardClosed = true;
+            }
+            nodesExplored++;
+            if (progress.due(nodesExplored)) {
+                progress.report(nodesExplored, current.f, forwardOpen.size() + backwardOpen.size(), table.size());
+            }
+            
+            List<SokobanSolver.State> children = forward ? current.getPossibleMoves() : current.getPossiblePulls();
+            for (SokobanSolver.State child : children) {
+                Entry known = table.get(child.hash);
+                SokobanSolver.State previous = known == null ? null : (forward ? known.forward : known.backward);
+                if (previous != null && previous.g <= child.g) continue;
+                
+                int h = forward ? child.heuristic() : backwardHeuristic(child);
+                if (h == Integer.MAX_VALUE) continue;
+                child.f = child.g + h;
+                offer(child, forward, open);
+            }
+        }
+        
+        if (meeting == null) return null;
+        return join(meeting.forward, meeting.backward);
+    }
+    
+    // Enregistre l'état dans la table partagée et teste la rencontre avec l'autre front
+    private void offer(SokobanSolver.State state, boolean forward, BucketQueue open) {
+        Entry entry = table.computeIfAbsent(state.hash, k -> new Entry());
+        SokobanSolver.State other;
+        if (forward) {
+            entry.forward = state;
+            entry.forwardClosed = false;
+            other = entry.backward;
+        } else {
+            entry.backward = state;
+            entry.backwardClosed = false;
+            other = entry.forward;
+        }
+        if (other != null && state.g + other.g < bestCost) {
+            bestCost = state.g + other.g;
+            meeting = entry;
+        }
+        open.add(state);
+    }
+    
+    // Configurations but: caisses sur les cibles, une racine par zone libre du joueur
+    private List<SokobanSolver.State> goalStates() {
+        List<SokobanSolver.State> roots = new ArrayList<>();
+        long[] boxes = level.targets.clone();
+        long[] covered = boxes.clone();
+        for (int cell = 0; cell < level.cellCount; cell++) {
+            if (SokobanSolver.Level.get(covered, cell)) continue;
+            long[] zone = level.reachable(boxes, cell);
+            for (int w = 0; w < covered.length; w++) covered[w] |= zone[w];
+            roots.add(new SokobanSolver.State(level, boxes, cell));
+        }
+        return roots;
+    }
+    
+    // Borne inférieure du nombre de poussées depuis l'état initial
+    private int backwardHeuristic(SokobanSolver.State state) {
+        int[] cells = state.boxCells();
+        int[][] cost = new int[cells.length][distanceFromStart.length];
+        for (int i = 0; i < cells.length; i++) {
+            for (int j = 0; j < distanceFromStart.length; j++) {
+                cost[i][j] = distanceFromStart[j][cells[i]];
+            }
+        }
+        return HungarianMatching.solve(cost, cells.length, distanceFromStart.length);
+    }
+    
+    // Prolonge la branche avant en rejouant à l'envers les tirages de la branche arrière
+    private SokobanSolver.State join(SokobanSolver.State forward, SokobanSolver.State backward) {
+        SokobanSolver.State current = forward;
+        for (SokobanSolver.State pull = backward; pull.parent != null; pull = pull.parent) {
+            int d = SokobanSolver.Level.direction(pull.move);
+            int box = level.neighbor[d][pull.pushFrom];
+            current = current.push(box, d ^ 1);
+        }
+        return current;
+    }
+    
+    @Override
+    public void setProgress(ProgressReporter progress) {
+        this.progress = progress;
+    }
+    
+    @Override
+    public void setLimits(SearchLimits limits) {
+        this.limits = limits;
+    }
+    
+    @Override
+    public int getNodesExplored() {
+        return nodesExplored;
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.Arrays;
+
+/**
+ * File de priorité à seaux pour des f et g entiers bornés
+ *
+ * Un seau par valeur de f, et dans chaque seau une pile par valeur de g
+ * (le plus petit g sort en premier, comme le comparateur d'origine).
+ * Ajout en O(1), retrait en O(1) amorti: les curseurs minF/minG ne
+ * reculent que lorsqu'un état plus prometteur est ajouté.
+ */
+final class BucketQueue {
+    
+    private Bucket[] buckets = new Bucket[64];
+    private int minF = Integer.MAX_VALUE;
+    private int size;
+    
+    void add(SokobanSolver.State state) {
+        int f = state.f;
+        if (f >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(f + 1, buckets.length * 2));
+        }
+        Bucket bucket = buckets[f];
+        if (bucket == null) bucket = buckets[f] = new Bucket();
+        bucket.push(state);
+        if (f < minF) minF = f;
+        size++;
+    }
+    
+    // Retire l'état de plus petit f (puis plus petit g), null si vide
+    SokobanSolver.State poll() {
+        if (size == 0) return null;
+        while (buckets[minF] == null || buckets[minF].size == 0) minF++;
+        size--;
+        SokobanSolver.State state = buckets[minF].pop();
+        if (size == 0) minF = Integer.MAX_VALUE;
+        return state;
+    }
+    
+    // Plus petit f présent (Integer.MAX_VALUE si vide)
+    int minF() {
+        if (size == 0) return Integer.MAX_VALUE;
+        while (buckets[minF] == null || buckets[minF].size == 0) minF++;
+        return minF;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    // Seau d'un f donné: une pile d'états par valeur de g
+    private static final class Bucket {
+        private SokobanSolver.State[][] stacks = new SokobanSolver.State[16][];
+        private int[] counts = new int[16];
+        private int minG = Integer.MAX_VALUE;
+        private int size;
+        
+        void push(SokobanSolver.State state) {
+            int g = state.g;
+            if (g >= stacks.length) {
+                int length = Math.max(g + 1, stacks.length * 2);
+                stacks = Arrays.copyOf(stacks, length);
+                counts = Arrays.copyOf(counts, length);
+            }
+            SokobanSolver.State[] stack = stacks[g];
+            if (stack == null) {
+                stack = stacks[g] = new SokobanSolver.State[8];
+            } else if (counts[g] == stack.length) {
+                stack = stacks[g] = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[counts[g]++] = state;
+            if (g < minG) minG = g;
+            size++;
+        }
+        
+        SokobanSolver.State pop() {
+            while (counts[minG] == 0) minG++;
+            SokobanSolver.State[] stack = stacks[minG];
+            int top = --counts[minG];
+            SokobanSolver.State state = stack[top];
+            stack[top] = null;
+            if (--size == 0) minG = Integer.MAX_VALUE;
+            return state;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Limites d'une résolution: nœuds, durée, mémoire et jeton d'annulation
+ *
+ * Chaque limite est facultative. Sans limite de nœuds, chaque stratégie
+ * garde son plafond par défaut. La mémoire est celle du tas de la JVM
+ * entière (tas occupé, déchets compris), relevée périodiquement.
+ */
+public final class Budget {
+    
+    long maxNodes = -1;                     // -1 = plafond par défaut de la stratégie
+    long maxMillis = Long.MAX_VALUE;
+    long maxHeapBytes = Long.MAX_VALUE;
+    CancellationToken token = new CancellationToken();
+    
+    public Budget maxNodes(long maxNodes) {
+        if (maxNodes < 1) throw new IllegalArgumentException("Nombre de nœuds invalide: " + maxNodes);
+        this.maxNodes = maxNodes;
+        return this;
+    }
+    
+    public Budget maxMillis(long maxMillis) {
+        if (maxMillis < 0) throw new IllegalArgumentException("Durée invalide: " + maxMillis);
+        this.maxMillis = maxMillis;
+        return this;
+    }
+    
+    public Budget maxHeapBytes(long maxHeapBytes) {
+        if (maxHeapBytes < 1) throw new IllegalArgumentException("Taille de tas invalide: " + maxHeapBytes);
+        this.maxHeapBytes = maxHeapBytes;
+        return this;
+    }
+    
+    public Budget token(CancellationToken token) {
+        this.token = token;
+        return this;
+    }
+    
+    public CancellationToken getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * Jeton d'annulation d'une résolution, partagé avec d'autres threads
+ *
+ * cancel() peut être appelé de n'importe quel thread; la recherche lit le
+ * jeton à chaque expansion et s'arrête au plus une expansion plus tard.
+ */
+public final class CancellationToken {
+    
+    private volatile boolean cancelled;
+    
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
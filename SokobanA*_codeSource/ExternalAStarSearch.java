@@ -0,0 +1,394 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * A* en mémoire externe: Open et Closed sur disque
+ *
+ * Les états générés sont rangés par seau (g, h) sous forme compacte
+ * (clé de Zobrist, clé du parent, g du parent, joueur, bitset des caisses).
+ * Chaque seau accumule ses états en mémoire puis les déverse sur disque en
+ * séquences triées par clé dès que le budget mémoire est dépassé. Les seaux
+ * sont développés par f puis g croissants; développer un seau fusionne ses
+ * séquences et en retire à la volée les doublons, ainsi que les états déjà
+ * fermés dans un seau (g', h) de même h et de g' < g (détection différée des
+ * doublons). Le résultat trié devient le fichier Closed du seau.
+ *
+ * Le chemin est reconstruit à partir des clés des parents relues dans les
+ * fichiers Closed, puis rejoué en régénérant les successeurs de chaque état.
+ *
+ * Chaque recherche écrit dans son propre sous-répertoire temporaire, supprimé
+ * à la fin: plusieurs recherches peuvent partager le même répertoire de
+ * débordement, et les restes d'une exécution interrompue ne gênent pas les
+ * suivantes.
+ */
+class ExternalAStarSearch implements SearchEngine {
+    
+    private static final int IO_BUFFER = 1 << 16;
+    private static final int HEADER = 3;             // Clé, clé du parent, g du parent << 32 | joueur
+    
+    private final Path directory;                   // Sous-répertoire propre à cette recherche
+    private final long maxNodes;
+    private final long memoryBytes;
+    
+    private final TreeMap<Long, Bucket> buckets = new TreeMap<>();         // Clé f << 32 | g
+    private final Map<Integer, List<Bucket>> closedByH = new HashMap<>();
+    private SokobanSolver.Level level;
+    private int recordLongs;
+    private long buffered;
+    private int fileCount;
+    private int nodesExplored;
+    private long openRecords;                       // Enregistrements générés pas encore fusionnés
+    private ProgressReporter progress = ProgressReporter.NONE;
+    private SearchLimits limits = SearchLimits.unlimited();
+    
+    // Seau (g, h): tampon en mémoire, séquences triées sur disque, puis fichier Closed
+    private final class Bucket {
+        final int g, h;
+        long[] buffer = new long[0];
+        int count;
+        final List<Path> runs = new ArrayList<>();
+        Path closed;
+        
+        Bucket(int g, int h) {
+            this.g = g;
+            this.h = h;
+        }
+    }
+    
+    // spillDirectory: répertoire où créer le sous-répertoire de la recherche
+    // (null = répertoire temporaire du système)
+    ExternalAStarSearch(Path spillDirectory, long maxNodes, int memoryMegabytes) {
+        try {
+            this.directory = spillDirectory == null
+                ? Files.createTempDirectory("sokoban-astar")
+                : Files.createTempDirectory(spillDirectory, "sokoban-astar");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.maxNodes = maxNodes;
+        this.memoryBytes = (long) memoryMegabytes << 20;
+    }
+    
+    @Override
+    public SokobanSolver.State search(SokobanSolver.State start) {
+        level = start.level;
+        recordLongs = HEADER + level.words;
+        try {
+            int h0 = start.heuristic();
+            if (h0 == Integer.MAX_VALUE) return null;
+            start.f = h0;
+            add(pack(start, 0, -1), 0, h0);
+            
+            while (!buckets.isEmpty() && nodesExplored < maxNodes && !limits.exceeded(nodesExplored)) {
+                Bucket bucket = buckets.pollFirstEntry().getValue();
+                long[] goal = expand(bucket);
+                if (goal != null) return rebuild(start, goal, bucket.g);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            cleanUp();
+        }
+    }
+    
+    // Fusionne les séquences du seau sans doublons ni états déjà fermés, écrit
+    // le fichier Closed et génère les successeurs; renvoie l'enregistrement but trouvé
+    private long[] expand(Bucket bucket) throws IOException {
+        spill(bucket);
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(Comparator.comparingLong(RunReader::key));
+        for (Path run : bucket.runs) open(queue, run, false);
+        for (Bucket done : closedByH.getOrDefault(bucket.h, Collections.emptyList())) {
+            open(queue, done.closed, true);
+        }
+        
+        bucket.closed = newFile();
+        long[] goal = null;
+        try (RunWriter closed = new RunWriter(bucket.closed)) {
+            while (!queue.isEmpty() && goal == null && nodesExplored < maxNodes
+                    && !limits.exceeded(nodesExplored)) {
+                long key = queue.peek().key();
+                boolean known = false;
+                long[] record = null;
+                while (!queue.isEmpty() && queue.peek().key() == key) {
+                    RunReader reader = queue.poll();
+                    if (reader.closed) {
+                        known = true;
+                    } else {
+                        openRecords--;
+                        if (record == null) record = reader.current.clone();
+                    }
+                    if (reader.advance()) queue.add(reader); else reader.close();
+                }
+                if (known || record == null) continue;
+                
+                closed.write(record);
+                nodesExplored++;
+                if (progress.due(nodesExplored)) {
+                    progress.report(nodesExplored, bucket.g + bucket.h, openRecords, nodesExplored);
+                }
+                SokobanSolver.State state = unpack(record, bucket.g);
+                if (state.isGoal()) {
+                    goal = record;
+                    continue;
+                }
+                for (SokobanSolver.State child : state.getPossibleMoves()) {
+                    int h = child.heuristic();
+                    if (h == Integer.MAX_VALUE) continue;
+                    add(pack(child, key, bucket.g), child.g, h);
+                }
+            }
+        } finally {
+            for (RunReader reader : queue) reader.close();
+        }
+        for (Path run : bucket.runs) Files.deleteIfExists(run);
+        bucket.runs.clear();
+        closedByH.computeIfAbsent(bucket.h, k -> new ArrayList<>()).add(bucket);
+        return goal;
+    }
+    
+    private void open(PriorityQueue<RunReader> queue, Path file, boolean closed) throws IOException {
+        RunReader reader = new RunReader(file, closed);
+        if (reader.advance()) queue.add(reader); else reader.close();
+    }
+    
+    // Ajoute un enregistrement au tampon du seau; déverse le plus gros tampon au-delà du budget
+    private void add(long[] record, int g, int h) throws IOException {
+        long key = ((long) (g + h) << 32) | g;
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) buckets.put(key, bucket = new Bucket(g, h));
+        if ((bucket.count + 1) * recordLongs > bucket.buffer.length) {
+            bucket.buffer = Arrays.copyOf(bucket.buffer, Math.max(16 * recordLongs, bucket.buffer.length * 2));
+        }
+        System.arraycopy(record, 0, bucket.buffer, bucket.count * recordLongs, recordLongs);
+        bucket.count++;
+        openRecords++;
+        
+        if (++buffered * recordLongs * 8 > memoryBytes) {
+            Bucket largest = bucket;
+            for (Bucket b : buckets.values()) {
+                if (b.count > largest.count) largest = b;
+            }
+            spill(largest);
+        }
+    }
+    
+    // Trie le tampon du seau par clé et l'écrit comme une nouvelle séquence
+    private void spill(Bucket bucket) throws IOException {
+        if (bucket.count == 0) return;
+        sort(bucket.buffer, 0, bucket.count - 1);
+        Path run = newFile();
+        try (RunWriter writer = new RunWriter(run)) {
+            long[] record = new long[recordLongs];
+            for (int i = 0; i < bucket.count; i++) {
+                System.arraycopy(bucket.buffer, i * recordLongs, record, 0, recordLongs);
+                writer.write(record);
+            }
+        }
+        bucket.runs.add(run);
+        buffered -= bucket.count;
+        bucket.count = 0;
+        bucket.buffer = new long[0];
+    }
+    
+    // Remonte les parents dans les fichiers Closed puis rejoue le chemin depuis le départ
+    private SokobanSolver.State rebuild(SokobanSolver.State start, long[] goal, int goalG) throws IOException {
+        LinkedList<long[]> chain = new LinkedList<>();
+        LinkedList<Integer> costs = new LinkedList<>();
+        long[] record = goal;
+        int g = goalG;
+        while (parentG(record) >= 0) {
+            chain.addFirst(record);
+            costs.addFirst(g);
+            g = parentG(record);
+            record = findClosed(record[1], g);
+        }
+        
+        SokobanSolver.State current = start;
+        Iterator<Integer> cost = costs.iterator();
+        for (long[] step : chain) {
+            int expected = cost.next();
+            SokobanSolver.State next = null;
+            for (SokobanSolver.State child : current.getPossibleMoves()) {
+                if (child.hash == step[0] && child.g == expected) {
+                    next = child;
+                    break;
+                }
+            }
+            if (next == null) throw new IllegalStateException("Chemin externe incohérent à g = " + expected);
+            current = next;
+        }
+        return current;
+    }
+    
+    // Enregistrement fermé de clé donnée parmi les seaux de g donné
+    private long[] findClosed(long key, int g) throws IOException {
+        for (List<Bucket> list : closedByH.values()) {
+            for (Bucket bucket : list) {
+                if (bucket.g != g) continue;
+                try (RunReader reader = new RunReader(bucket.closed, true)) {
+                    while (reader.advance()) {
+                        if (reader.key() == key) return reader.current.clone();
+                        if (reader.key() > key) break;
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("Parent introuvable à g = " + g);
+    }
+    
+    // ========== Format compact d'un état ==========
+    
+    private long[] pack(SokobanSolver.State state, long parentKey, int parentG) {
+        long[] record = new long[recordLongs];
+        record[0] = state.hash;
+        record[1] = parentKey;
+        record[2] = ((long) parentG << 32) | (state.player & 0xFFFFFFFFL);
+        System.arraycopy(state.boxes, 0, record, HEADER, level.words);
+        return record;
+    }
+    
+    private SokobanSolver.State unpack(long[] record, int g) {
+        long[] boxes = Arrays.copyOfRange(record, HEADER, recordLongs);
+        SokobanSolver.State state = new SokobanSolver.State(level, boxes, (int) record[2]);
+        state.g = g;
+        return state;
+    }
+    
+    private static int parentG(long[] record) {
+        return (int) (record[2] >> 32);
+    }
+    
+    // Tri rapide des enregistrements du tampon par clé
+    private void sort(long[] data, int lo, int hi) {
+        while (lo < hi) {
+            long pivot = data[((lo + hi) >>> 1) * recordLongs];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (data[i * recordLongs] < pivot) i++;
+                while (data[j * recordLongs] > pivot) j--;
+                if (i <= j) swap(data, i++, j--);
+            }
+            // Récursion sur la plus petite moitié: pile en O(log n)
+            if (j - lo < hi - i) {
+                sort(data, lo, j);
+                lo = i;
+            } else {
+                sort(data, i, hi);
+                hi = j;
+            }
+        }
+    }
+    
+    private void swap(long[] data, int a, int b) {
+        for (int k = 0, x = a * recordLongs, y = b * recordLongs; k < recordLongs; k++, x++, y++) {
+            long t = data[x];
+            data[x] = data[y];
+            data[y] = t;
+        }
+    }
+    
+    private Path newFile() {
+        return directory.resolve("bucket-" + (fileCount++) + ".bin");
+    }
+    
+    private void cleanUp() {
+        buckets.clear();
+        closedByH.clear();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Fichiers temporaires: un échec de nettoyage n'invalide pas le résultat
+        }
+        try {
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            // Fichiers temporaires: un échec de nettoyage n'invalide pas le résultat
+        }
+    }
+    
+    @Override
+    public void setProgress(ProgressReporter progress) {
+        this.progress = progress;
+    }
+    
+    @Override
+    public void setLimits(SearchLimits limits) {
+        this.limits = limits;
+    }
+    
+    @Override
+    public int getNodesExplored() {
+        return nodesExplored;
+    }
+    
+    // ========== Lecture et écriture séquentielles par NIO ==========
+    
+    private final class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER);
+        
+        RunWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+        
+        void write(long[] record) throws IOException {
+            if (buffer.remaining() < recordLongs * 8) flush();
+            for (long value : record) buffer.putLong(value);
+        }
+        
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            flush();
+            channel.close();
+        }
+    }
+    
+    private final class RunReader implements AutoCloseable {
+        final boolean closed;               // Fichier Closed (sert à écarter les doublons)
+        final long[] current = new long[recordLongs];
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER - IO_BUFFER % (recordLongs * 8));
+        
+        RunReader(Path file, boolean closed) throws IOException {
+            this.closed = closed;
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer.limit(0);
+        }
+        
+        long key() {
+            return current[0];
+        }
+        
+        // Charge l'enregistrement suivant dans current; faux en fin de fichier
+        boolean advance() throws IOException {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                while (buffer.hasRemaining() && channel.read(buffer) > 0) { }
+                buffer.flip();
+                if (!buffer.hasRemaining()) return false;
+            }
+            for (int k = 0; k < recordLongs; k++) current[k] = buffer.getLong();
+            return true;
+        }
+        
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Lecture terminée: rien à récupérer
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.Arrays;
+
+/**
+ * Affectation de coût minimal caisses → cibles (algorithme hongrois, O(n²·m))
+ *
+ * Les coûts valant INFINITE marquent une affectation impossible: si aucune
+ * affectation complète n'évite ces coûts, le résultat est Integer.MAX_VALUE.
+ */
+final class HungarianMatching {
+    
+    static final int INFINITE = Integer.MAX_VALUE;
+    
+    private HungarianMatching() {
+    }
+    
+    // Coût minimal d'une affectation de chaque ligne (caisse) à une colonne (cible) distincte
+    static int solve(int[][] cost, int rows, int cols) {
+        if (rows == 0) return 0;
+        if (rows > cols) return INFINITE;
+        
+        // Une caisse sans aucune cible atteignable: blocage immédiat
+        for (int i = 0; i < rows; i++) {
+            boolean reachable = false;
+            for (int j = 0; j < cols && !reachable; j++) {
+                reachable = cost[i][j] != INFINITE;
+            }
+            if (!reachable) return INFINITE;
+        }
+        
+        // Potentiels u (lignes) et v (colonnes), indices décalés de 1
+        long[] u = new long[rows + 1];
+        long[] v = new long[cols + 1];
+        int[] match = new int[cols + 1];     // Colonne → ligne affectée
+        int[] way = new int[cols + 1];
+        long[] minv = new long[cols + 1];
+        boolean[] used = new boolean[cols + 1];
+        
+        for (int i = 1; i <= rows; i++) {
+            match[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+            
+            do {
+                used[j0] = true;
+                int i0 = match[j0];
+                long delta = Long.MAX_VALUE;
+                int j1 = 0;
+                for (int j = 1; j <= cols; j++) {
+                    if (used[j]) continue;
+                    long cur = cost[i0 - 1][j - 1] - u[i0] - v[j];
+                    if (cur < minv[j]) {
+                        minv[j] = cur;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= cols; j++) {
+                    if (used[j]) {
+                        u[match[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (match[j0] != 0);
+            
+            // Remonte le chemin augmentant
+            do {
+                int j1 = way[j0];
+                match[j0] = match[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+        
+        long total = 0;
+        for (int j = 1; j <= cols; j++) {
+            if (match[j] == 0) continue;
+            int c = cost[match[j] - 1][j - 1];
+            if (c == INFINITE) return INFINITE;
+            total += c;
+        }
+        return total >= INFINITE ? INFINITE : (int) total;
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.*;
+
+/**
+ * IDA*: approfondissement itératif sur f = g + h
+ *
+ * Mémoire fixe: la pile de récursion (une entrée par poussée de la solution)
+ * et une table de transposition bornée (une génération par itération) qui
+ * élague les états déjà atteints avec un g inférieur ou égal pendant
+ * l'itération courante. Les successeurs sont essayés par h croissant.
+ */
+class IDAStarSearch implements SearchEngine {
+    
+    private static final int FOUND = -1;
+    
+    private final long maxNodes;
+    private final TranspositionTable table;
+    
+    private int nodesExplored;
+    private ProgressReporter progress = ProgressReporter.NONE;
+    private SearchLimits limits = SearchLimits.unlimited();
+    private SokobanSolver.State goal;
+    
+    IDAStarSearch(long maxNodes, int tableMegabytes) {
+        this.maxNodes = maxNodes;
+        this.table = TranspositionTable.withMegabytes(tableMegabytes);
+    }
+    
+    @Override
+    public SokobanSolver.State search(SokobanSolver.State start) {
+        int bound = start.heuristic();
+        start.f = bound;
+        
+        while (bound != Integer.MAX_VALUE && nodesExplored < maxNodes && !limits.exceeded(nodesExplored)) {
+            table.nextGeneration();
+            int next = depthFirst(start, bound);
+            if (next == FOUND) return goal;
+            bound = next;
+        }
+        return null;
+    }
+    
+    // Explore sous la borne; renvoie FOUND ou le plus petit f ayant dépassé la borne
+    private int depthFirst(SokobanSolver.State state, int bound) {
+        if (state.f > bound) return state.f;
+        if (state.isGoal()) {
+            goal = state;
+            return FOUND;
+        }
+        if (nodesExplored >= maxNodes || limits.exceeded(nodesExplored)) return Integer.MAX_VALUE;
+        nodesExplored++;
+        if (progress.due(nodesExplored)) progress.report(nodesExplored, bound, -1, table.size(), table.replacements());
+        
+        // Successeurs viables triés par heuristique croissante
+        List<SokobanSolver.State> children = new ArrayList<>();
+        for (SokobanSolver.State child : state.getPossibleMoves()) {
+            if (!visit(child)) continue;
+            int h = child.heuristic();
+            if (h == Integer.MAX_VALUE) continue;
+            child.f = child.g + h;
+            children.add(child);
+        }
+        children.sort((a, b) -> Integer.compare(a.f, b.f));
+        
+        int min = Integer.MAX_VALUE;
+        for (SokobanSolver.State child : children) {
+            int t = depthFirst(child, bound);
+            if (t == FOUND) return FOUND;
+            if (t < min) min = t;
+        }
+        return min;
+    }
+    
+    // Enregistre l'état dans la table; faux s'il a déjà été vu avec un g ≤ pendant l'itération
+    private boolean visit(SokobanSolver.State state) {
+        int slot = table.find(state.hash);
+        if (slot >= 0 && table.isCurrent(slot) && table.g(slot) <= state.g) return false;
+        table.store(slot, state.hash, state.g, false);
+        return true;
+    }
+    
+    @Override
+    public void setProgress(ProgressReporter progress) {
+        this.progress = progress;
+    }
+    
+    @Override
+    public void setLimits(SearchLimits limits) {
+        this.limits = limits;
+    }
+    
+    @Override
+    public int getNodesExplored() {
+        return nodesExplored;
+    }
+    
+    // Entrées écrasées faute de place dans la table
+    long getTableReplacements() {
+        return table.replacements();
+    }
+}
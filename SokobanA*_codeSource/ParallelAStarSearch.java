@@ -0,0 +1,212 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A* parallèle à distribution par hachage (HDA*)
+ *
+ * Chaque thread possède la partie de l'espace d'états dont la clé de Zobrist
+ * lui revient, avec sa propre liste ouverte et sa propre table de
+ * transposition. Un état généré est envoyé à son propriétaire par une file
+ * sans verrou. Un but trouvé devient la borne courante; la recherche ne
+ * s'arrête que lorsqu'aucun thread n'a plus d'état de f inférieur à cette
+ * borne, ce qui garantit l'optimalité.
+ */
+class ParallelAStarSearch implements SearchEngine {
+    
+    private static final int BATCH = 1024;          // Expansions entre deux mises à jour globales
+    private static final long POLL_MS = 50;         // Attente entre deux relevés d'avancement
+    private static final int SPIN_POLLS = 64;       // Relevés à vide en attente active avant de se garer
+    private static final long MIN_PARK_NANOS = 10_000;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+    
+    private final int threadCount;
+    private final long maxNodes;
+    private final Worker[] workers;
+    
+    // Travail en cours = threads actifs + états en transit; zéro signifie terminé
+    private final AtomicLong work = new AtomicLong();
+    private final AtomicLong totalNodes = new AtomicLong();
+    private final AtomicReference<SokobanSolver.State> best = new AtomicReference<>();
+    private volatile int bestCost = Integer.MAX_VALUE;
+    private volatile boolean stopped;
+    private ProgressReporter progress = ProgressReporter.NONE;
+    private SearchLimits limits = SearchLimits.unlimited();
+    
+    ParallelAStarSearch(int threadCount, long maxNodes) {
+        this.threadCount = Math.max(1, threadCount);
+        this.maxNodes = maxNodes;
+        this.workers = new Worker[this.threadCount];
+        for (int i = 0; i < this.threadCount; i++) {
+            workers[i] = new Worker(i);
+        }
+    }
+    
+    @Override
+    public SokobanSolver.State search(SokobanSolver.State start) {
+        work.incrementAndGet();
+        workers[owner(start)].inbox.add(start);
+        
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(workers[i], "hda-" + i);
+            threads[i].start();
+        }
+        try {
+            // Le thread appelant relève l'avancement et le budget pendant que les workers cherchent
+            for (Thread thread : threads) {
+                while (thread.isAlive()) {
+                    thread.join(POLL_MS);
+                    if (progress.due()) progress.report(totalNodes.get(), -1, -1, -1);
+                    if (limits.exceeded()) stopped = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            stopped = true;
+            Thread.currentThread().interrupt();
+            limits.exceeded();
+        }
+        // Interrompue par le budget, la borne n'est pas prouvée optimale
+        return stopped ? null : best.get();
+    }
+    
+    private int owner(SokobanSolver.State state) {
+        return (int) ((state.hash >>> 1) % threadCount);
+    }
+    
+    // Garde le but s'il améliore la borne courante
+    private void offerGoal(SokobanSolver.State goal) {
+        SokobanSolver.State current;
+        do {
+            current = best.get();
+            if (current != null && current.g <= goal.g) return;
+        } while (!best.compareAndSet(current, goal));
+        bestCost = goal.g;
+    }
+    
+    @Override
+    public void setProgress(ProgressReporter progress) {
+        this.progress = progress;
+    }
+    
+    @Override
+    public void setLimits(SearchLimits limits) {
+        this.limits = limits;
+    }
+    
+    @Override
+    public int getNodesExplored() {
+        int total = 0;
+        for (Worker worker : workers) total += worker.expanded;
+        return total;
+    }
+    
+    // Nombre d'expansions réalisées par chaque thread
+    int[] getThreadExpansions() {
+        int[] counts = new int[threadCount];
+        for (int i = 0; i < threadCount; i++) counts[i] = workers[i].expanded;
+        return counts;
+    }
+    
+    // ========== Thread de recherche: une partition de l'espace d'états ==========
+    
+    private final class Worker implements Runnable {
+        final int id;
+        final ConcurrentLinkedQueue<SokobanSolver.State> inbox = new ConcurrentLinkedQueue<>();
+        final BucketQueue open = new BucketQueue();
+        final TranspositionTable table = new TranspositionTable(1 << 12);
+        volatile int expanded;
+        
+        Worker(int id) {
+            this.id = id;
+        }
+        
+        @Override
+        public void run() {
+            boolean active = false;
+            int pending = 0;
+            int idle = 0;                           // Relevés à vide consécutifs
+            long parkNanos = MIN_PARK_NANOS;
+            
+            while (!stopped) {
+                SokobanSolver.State message;
+                while ((message = inbox.poll()) != null) {
+                    if (!active) {
+                        work.incrementAndGet();
+                        active = true;
+                    }
+                    receive(message);
+                    work.decrementAndGet();
+                }
+                
+                SokobanSolver.State current = pollUseful();
+                if (current == null) {
+                    if (active) {
+                        active = false;
+                        work.decrementAndGet();
+                    }
+                    if (work.get() == 0) break;
+                    // Attente active brève, puis repos croissant (borné) pour libérer le cœur
+                    if (++idle <= SPIN_POLLS) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(parkNanos);
+                        parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+                    }
+                    continue;
+                }
+                idle = 0;
+                parkNanos = MIN_PARK_NANOS;
+                
+                expanded++;
+                if (++pending == BATCH) {
+                    pending = 0;
+                    if (totalNodes.addAndGet(BATCH) >= maxNodes) stopped = true;
+                }
+                
+                if (current.isGoal()) {
+                    offerGoal(current);
+                    continue;
+                }
+                
+                for (SokobanSolver.State child : current.getPossibleMoves()) {
+                    int target = owner(child);
+                    if (target == id) {
+                        receive(child);
+                    } else {
+                        work.incrementAndGet();
+                        workers[target].inbox.add(child);
+                    }
+                }
+            }
+            totalNodes.addAndGet(pending);
+        }
+        
+        // Détection des doublons dans la partition locale puis insertion dans Open
+        private void receive(SokobanSolver.State state) {
+            int slot = table.find(state.hash);
+            if (slot >= 0 && table.g(slot) <= state.g) return;
+            table.store(slot, state.hash, state.g, false);
+            
+            int h = state.heuristic();
+            if (h == Integer.MAX_VALUE) return;
+            state.f = state.g + h;
+            if (state.f >= bestCost) return;
+            open.add(state);
+        }
+        
+        // Prochain état à développer: ni périmé, ni dominé par la borne courante
+        private SokobanSolver.State pollUseful() {
+            SokobanSolver.State state;
+            while ((state = open.poll()) != null) {
+                int slot = table.find(state.hash);
+                if (table.g(slot) < state.g || table.isClosed(slot)) continue;
+                if (state.f >= bestCost) continue;
+                table.close(slot);
+                return state;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+import java.util.concurrent.Executor;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Diffuse les événements d'avancement d'une recherche en Flow.Publisher
+ *
+ * À passer comme écouteur (Options.progress). La recherche ne bloque
+ * jamais: un abonné trop lent perd des événements, le dernier (isFinished)
+ * étant réoffert une fois avant d'être abandonné. Un même diffuseur peut
+ * suivre plusieurs recherches (Options.copy, BatchSolver): il n'est pas
+ * fermé à la fin d'une recherche, c'est à son propriétaire d'appeler close().
+ */
+public final class ProgressPublisher extends SubmissionPublisher<SearchProgress>
+        implements SokobanSolver.ProgressListener {
+    
+    public ProgressPublisher() {
+        super();
+    }
+    
+    // executor: threads qui livrent les événements aux abonnés
+    public ProgressPublisher(Executor executor, int bufferCapacity) {
+        super(executor, bufferCapacity);
+    }
+    
+    @Override
+    public void onProgress(SearchProgress progress) {
+        offer(progress, null);
+    }
+    
+    @Override
+    public void onFinished(SearchProgress last) {
+        // Tampon d'un abonné plein: une seconde tentative, sans attente
+        offer(last, (subscriber, dropped) -> true);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Échantillonneur d'avancement partagé par les moteurs de recherche
+ *
+ * La boucle chaude n'appelle due() qu'avec son compteur d'expansions:
+ * l'horloge n'est lue qu'une fois toutes les SAMPLE_MASK + 1 expansions, et
+ * un événement n'est construit que si l'intervalle demandé est écoulé.
+ */
+final class ProgressReporter {
+    
+    private static final int SAMPLE_MASK = 1023;
+    
+    // Rapporteur inactif: due() toujours faux
+    static final ProgressReporter NONE = new ProgressReporter(null, Long.MAX_VALUE, -1);
+    
+    private final SokobanSolver.ProgressListener listener;
+    private final long intervalNanos;
+    private final int level;                 // Rang du niveau dans le lot, -1 hors lot
+    private final long startNanos = System.nanoTime();
+    private long nextNanos;
+    private long lastNodes;
+    private long lastNanos = startNanos;
+    
+    ProgressReporter(SokobanSolver.ProgressListener listener, long intervalMillis, int level) {
+        this.listener = listener;
+        this.level = level;
+        this.intervalNanos = intervalMillis == Long.MAX_VALUE ? Long.MAX_VALUE : intervalMillis * 1_000_000L;
+        this.nextNanos = listener == null ? Long.MAX_VALUE : startNanos + intervalNanos;
+    }
+    
+    // Vrai si un événement doit être émis maintenant
+    boolean due(long nodes) {
+        return (nodes & SAMPLE_MASK) == 0 && due();
+    }
+    
+    // Idem, sans échantillonnage par compteur (appelant hors boucle chaude)
+    boolean due() {
+        return listener != null && System.nanoTime() >= nextNanos;
+    }
+    
+    void report(long nodes, int minF, long openSize, long closedSize) {
+        report(nodes, minF, openSize, closedSize, -1);
+    }
+    
+    // Idem, avec les remplacements de la table bornée du moteur
+    synchronized void report(long nodes, int minF, long openSize, long closedSize, long replacements) {
+        if (listener == null) return;
+        listener.onProgress(sample(nodes, minF, openSize, closedSize, replacements, false));
+        nextNanos = lastNanos + intervalNanos;
+    }
+    
+    // Dernier événement, quel que soit l'intervalle
+    synchronized void finish(long nodes, int minF, long openSize, long closedSize, long replacements) {
+        if (listener == null) return;
+        listener.onFinished(sample(nodes, minF, openSize, closedSize, replacements, true));
+    }
+    
+    private SearchProgress sample(long nodes, int minF, long openSize, long closedSize, long replacements,
+                                  boolean finished) {
+        long now = System.nanoTime();
+        double rate = now > lastNanos ? (nodes - lastNodes) * 1e9 / (now - lastNanos) : 0;
+        lastNodes = nodes;
+        lastNanos = now;
+        return new SearchProgress(level, nodes, minF, openSize, closedSize, replacements, rate,
+            (now - startNanos) / 1_000_000L, finished);
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Moteur de recherche interchangeable du solveur Sokoban
+ */
+interface SearchEngine {
+    
+    // Cherche un état but depuis l'état initial, null si aucun n'est trouvé
+    SokobanSolver.State search(SokobanSolver.State start);
+    
+    int getNodesExplored();
+    
+    // Rapporteur d'avancement appelé depuis la boucle de recherche
+    default void setProgress(ProgressReporter progress) {
+    }
+    
+    // Budget (durée, mémoire, annulation) vérifié depuis la boucle de recherche
+    void setLimits(SearchLimits limits);
+}
@@ -0,0 +1,62 @@
+/**
+ * Contrôle du budget pendant la recherche
+ *
+ * exceeded(nodes) est appelé à chaque expansion: le jeton d'annulation et
+ * l'interruption du thread sont lus à chaque appel, l'horloge et le tas une
+ * fois toutes les SAMPLE_MASK + 1 expansions seulement. Le premier
+ * dépassement constaté est retenu comme motif d'arrêt.
+ */
+final class SearchLimits {
+    
+    private static final int SAMPLE_MASK = 1023;
+    
+    // Aucune limite (hors interruption du thread)
+    static SearchLimits unlimited() {
+        return new SearchLimits(new Budget(), System.currentTimeMillis());
+    }
+    
+    private final CancellationToken token;
+    private final long deadline;
+    private final long maxHeapBytes;
+    private volatile SolveResult.Status reason;
+    
+    SearchLimits(Budget budget, long startMillis) {
+        this.token = budget.token;
+        this.deadline = budget.maxMillis == Long.MAX_VALUE ? Long.MAX_VALUE : startMillis + budget.maxMillis;
+        this.maxHeapBytes = budget.maxHeapBytes;
+    }
+    
+    // Vrai si la recherche doit s'arrêter (appel depuis la boucle chaude)
+    boolean exceeded(long nodes) {
+        if (reason != null) return true;
+        if (token.isCancelled() || Thread.currentThread().isInterrupted()) {
+            reason = SolveResult.Status.CANCELLED;
+            return true;
+        }
+        return (nodes & SAMPLE_MASK) == 0 && exceeded();
+    }
+    
+    // Idem, en relevant l'horloge et le tas à chaque appel
+    boolean exceeded() {
+        if (reason != null) return true;
+        if (token.isCancelled() || Thread.currentThread().isInterrupted()) {
+            reason = SolveResult.Status.CANCELLED;
+        } else if (deadline != Long.MAX_VALUE && System.currentTimeMillis() >= deadline) {
+            reason = SolveResult.Status.TIME_LIMIT;
+        } else if (maxHeapBytes != Long.MAX_VALUE) {
+            Runtime runtime = Runtime.getRuntime();
+            if (runtime.totalMemory() - runtime.freeMemory() > maxHeapBytes) reason = SolveResult.Status.MEMORY_LIMIT;
+        }
+        return reason != null;
+    }
+    
+    // Échéance propre au moteur (ANYTIME) atteinte: arrêt pour dépassement de durée
+    void expire() {
+        if (reason == null) reason = SolveResult.Status.TIME_LIMIT;
+    }
+    
+    // Motif de l'arrêt, null si aucune limite n'a été atteinte
+    SolveResult.Status reason() {
+        return reason;
+    }
+}
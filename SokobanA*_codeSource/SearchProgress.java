@@ -0,0 +1,78 @@
+/**
+ * Instantané de l'avancement d'une recherche, émis périodiquement
+ *
+ * Les tailles sans équivalent pour un moteur (liste ouverte de IDA*,
+ * tables réparties de HDA*, remplacements hors table bornée...) valent -1.
+ * En lot (BatchSolver), getLevel() indique le niveau d'où vient l'événement.
+ */
+public final class SearchProgress {
+    
+    private final int level;              // Rang du niveau dans le lot, -1 hors lot
+    private final long nodesExplored;
+    private final int minF;               // Plus petit f en attente (borne courante pour IDA*)
+    private final long openSize;
+    private final long closedSize;        // États mémorisés (table de transposition, fichiers Closed...)
+    private final long replacements;      // Entrées écrasées faute de place dans la table bornée
+    private final double nodesPerSecond;  // Débit depuis l'événement précédent
+    private final long elapsedMillis;
+    private final boolean finished;
+    
+    SearchProgress(int level, long nodesExplored, int minF, long openSize, long closedSize, long replacements,
+                   double nodesPerSecond, long elapsedMillis, boolean finished) {
+        this.level = level;
+        this.nodesExplored = nodesExplored;
+        this.minF = minF;
+        this.openSize = openSize;
+        this.closedSize = closedSize;
+        this.replacements = replacements;
+        this.nodesPerSecond = nodesPerSecond;
+        this.elapsedMillis = elapsedMillis;
+        this.finished = finished;
+    }
+    
+    // Rang du niveau (celui de BatchSolver.Result.getIndex), -1 pour une résolution seule
+    public int getLevel() {
+        return level;
+    }
+    
+    public long getNodesExplored() {
+        return nodesExplored;
+    }
+    
+    public int getMinF() {
+        return minF;
+    }
+    
+    public long getOpenSize() {
+        return openSize;
+    }
+    
+    public long getClosedSize() {
+        return closedSize;
+    }
+    
+    // Pression sur la table bornée (A*, IDA*): une entrée écrasée peut coûter une réexpansion
+    public long getReplacements() {
+        return replacements;
+    }
+    
+    public double getNodesPerSecond() {
+        return nodesPerSecond;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    // Vrai pour le dernier événement, émis à la fin de la recherche
+    public boolean isFinished() {
+        return finished;
+    }
+    
+    @Override
+    public String toString() {
+        String text = String.format("%d nœuds, f min %d, ouverts %d, fermés %d, remplacés %d, %.0f nœuds/s, %d ms",
+            nodesExplored, minF, openSize, closedSize, replacements, nodesPerSecond, elapsedMillis);
+        return level >= 0 ? "niveau " + level + ": " + text : text;
+    }
+}
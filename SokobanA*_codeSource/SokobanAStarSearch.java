@@ -1,9 +1,16 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
 /**
  * Programme principal pour résoudre des puzzles Sokoban avec A*
  */
 public class SokobanAStarSearch {
     
-    private static String[] grid1 = {
+    private static final long COLLECTION_TIME_LIMIT_MS = 60_000;   // Budget par niveau d'un recueil
+    
+    static String[] grid1 = {
         "■■■■■■■■■■",
         "■□□□□□□□□■",
         "■□■■□■■□□■",
@@ -16,7 +23,7 @@ public class SokobanAStarSearch {
         "■■■■■■■■■■"
     };
     
-    private static String[] grid2 = {
+    static String[] grid2 = {
         "■■■■■■■■■■",
         "■T□■□□■□T■",
         "■□■$□□$■□■",
@@ -29,7 +36,12 @@ public class SokobanAStarSearch {
         "■■■■■■■■■■"
     };
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            solveCollection(Paths.get(args[0]));
+            return;
+        }
+        
         System.out.println("========================================");
         System.out.println("Solveur Sokoban avec A*");
         System.out.println("========================================\n");
@@ -39,7 +51,7 @@ public class SokobanAStarSearch {
         printGrid(grid1);
         System.out.println();
         
-        SokobanSolver solver1 = new SokobanSolver(grid1);
+        SolveResult result1 = new SokobanSolver(grid1).solve();
         
         System.out.println("\n========================================\n");
         
@@ -48,19 +60,50 @@ public class SokobanAStarSearch {
         printGrid(grid2);
         System.out.println();
         
-        SokobanSolver solver2 = new SokobanSolver(grid2);
+        SolveResult result2 = new SokobanSolver(grid2).solve();
         
         System.out.println("\n========================================");
         System.out.println("Résumé des résultats:");
         System.out.println("========================================");
         System.out.println("Grille 1:");
-        System.out.println("  - Poussées: " + solver1.getPushCount());
-        System.out.println("  - Temps: " + solver1.getSolveTime() + " ms");
-        System.out.println("  - Nœuds explorés: " + solver1.getNodesExplored());
+        System.out.println("  - Poussées: " + result1.getPushCount());
+        System.out.println("  - Temps: " + result1.getSolveTime() + " ms");
+        System.out.println("  - Nœuds explorés: " + result1.getNodesExplored());
         System.out.println("\nGrille 2:");
-        System.out.println("  - Poussées: " + solver2.getPushCount());
-        System.out.println("  - Temps: " + solver2.getSolveTime() + " ms");
-        System.out.println("  - Nœuds explorés: " + solver2.getNodesExplored());
+        System.out.println("  - Poussées: " + result2.getPushCount());
+        System.out.println("  - Temps: " + result2.getSolveTime() + " ms");
+        System.out.println("  - Nœuds explorés: " + result2.getNodesExplored());
+    }
+    
+    // Résout un recueil XSB en lot, un résultat par ligne dans l'ordre du fichier
+    private static void solveCollection(Path file) throws IOException {
+        try (XsbReader reader = new XsbReader(file)) {
+            BatchSolver batch = new BatchSolver(new SokobanSolver.Options(), COLLECTION_TIME_LIMIT_MS);
+            List<BatchSolver.Result> results = batch.solveAll(reader.grids());
+            
+            Iterator<XsbReader.Puzzle> puzzles = reader.iterator();
+            for (BatchSolver.Result result : results) {
+                String title = puzzles.next().getTitle();
+                String status = result.getError() != null ? "erreur: " + result.getError().getMessage()
+                    : describe(result.getResult());
+                System.out.println((result.getIndex() + 1) + ". " + title + ": " + status
+                    + " (" + result.getSolveTime() + " ms, " + result.getNodesExplored() + " nœuds)");
+            }
+        }
+    }
+    
+    // Issue d'une résolution; « aucune solution » seulement si l'espace a été épuisé
+    private static String describe(SolveResult result) {
+        switch (result.getStatus()) {
+            case SOLVED: return result.getPushCount() + " poussées";
+            case NO_SOLUTION: return "aucune solution";
+            case INCONCLUSIVE: return "non résolu (recherche incomplète)";
+            case NODE_LIMIT: return "plafond de nœuds atteint";
+            case TIME_LIMIT: return "temps écoulé";
+            case MEMORY_LIMIT: return "mémoire épuisée";
+            case CANCELLED: return "annulé";
+            default: return result.getStatus().toString();
+        }
     }
     
     private static void printGrid(String[] grid) {
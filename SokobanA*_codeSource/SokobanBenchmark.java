@@ -0,0 +1,263 @@
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Mesures de performance des chemins critiques du solveur
+ *
+ * Le projet n'a pas de build (ni Maven ni Gradle) pour accueillir un module
+ * JMH: ce banc autonome en reprend les principes. Chaque mesure a une phase
+ * de chauffe puis des itérations mesurées; les résultats sont consommés
+ * (puits) pour que le JIT ne les élimine pas.
+ *
+ * Micro: getPossibleMoves(), heuristic(), hashCode()/equals() sur un
+ * échantillon d'états, boucle de recherche A* sur un petit niveau.
+ * Macro: résolution complète de grid1, grid2 et de niveaux standard.
+ * Chaque résolution est comparée au nombre de poussées optimal connu: un
+ * écart (élagage trop agressif...) interrompt le banc.
+ *
+ * Rapport: débit (op/s), percentiles de latence (p50, p90, p99; par lot
+ * pour les micro-mesures), octets alloués par opération, relevés par
+ * com.sun.management.ThreadMXBean sur le thread de mesure, et pour les
+ * macro-mesures les entrées écrasées dans la table bornée (A*, IDA*).
+ *
+ * Usage: java SokobanBenchmark [filtre] (sous-chaîne du nom des mesures);
+ * -Dbench.seconds=N (décimal accepté) règle la durée de chaque itération micro (1 s par défaut).
+ */
+public class SokobanBenchmark {
+    
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURE_ITERATIONS = 5;
+    private static final int BATCH = 256;              // Opérations micro par échantillon de latence
+    private static final int SAMPLE_STATES = 1024;
+    private static final String ROW = "%-30s %10s %11s %11s %11s %13s %10s%n";
+    
+    private static final String STANDARD_LEVELS = String.join("\n",
+        "; Microban 1",
+        "####", "# .#", "#  ###", "#*@  #", "#  $ #", "#  ###", "####", "",
+        "; Microban 2",
+        "######", "#    #", "# #@ #", "# $* #", "# .* #", "#    #", "######", "",
+        "; Microban 3",
+        "  ####", "###  ####", "#     $ #", "# #  #$ #", "# . .#@ #", "#########", "",
+        "; Microban 4",
+        "########", "#      #", "# .**$@#", "#      #", "#####  #", "    ####", "",
+        "; Microban 5",
+        " #######", " #     #", " # .$. #", "## $@$ #", "#  .$. #", "#      #", "########", "",
+        "; XSokoban 1",
+        "    #####", "    #   #", "    #$  #", "  ###  $##", "  #  $ $ #",
+        "### # ## #   ######", "#   # ## #####  ..#", "# $  $          ..#",
+        "##### ### #@##  ..#", "    #     #########", "    #######");
+    
+    // Poussées optimales, par titre de niveau
+    private static final Map<String, Integer> OPTIMAL_PUSHES = Map.of(
+        "Microban 1", 8, "Microban 2", 3, "Microban 3", 13, "Microban 4", 7, "Microban 5", 6,
+        "XSokoban 1", 97);
+    
+    private static long sink;                          // Puits: empêche l'élimination des calculs
+    private static long lastReplacements;              // Remplacements de la dernière résolution
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+    
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        long iterationNanos = (long) (Double.parseDouble(System.getProperty("bench.seconds", "1")) * 1e9);
+        
+        System.out.printf(ROW, "Mesure", "op/s", "p50", "p90", "p99", "octets/op", "rempl.");
+        
+        // ========== Micro-mesures ==========
+        
+        List<SokobanSolver.State> states = sampleStates(SokobanAStarSearch.grid1);
+        int[] cursor = new int[1];
+        
+        micro("micro.getPossibleMoves", filter, iterationNanos, () -> {
+            SokobanSolver.State state = states.get(cursor[0]++ & (SAMPLE_STATES - 1));
+            return state.getPossibleMoves().size();
+        });
+        micro("micro.heuristic", filter, iterationNanos, () -> {
+            SokobanSolver.State state = states.get(cursor[0]++ & (SAMPLE_STATES - 1));
+            return state.heuristic();
+        });
+        micro("micro.hashCode", filter, iterationNanos, () -> {
+            return states.get(cursor[0]++ & (SAMPLE_STATES - 1)).hashCode();
+        });
+        List<SokobanSolver.State> copies = new ArrayList<>();
+        for (SokobanSolver.State state : states) {
+            copies.add(new SokobanSolver.State(state.level, state.boxes.clone(), state.player));
+        }
+        micro("micro.equals", filter, iterationNanos, () -> {
+            int i = cursor[0]++ & (SAMPLE_STATES - 1);
+            return states.get(i).equals(copies.get(i)) ? 1 : 0;
+        });
+        
+        // Boucle de recherche seule: le solveur (analyse de la grille, tables du niveau) est construit
+        // une fois, chaque opération relance solve(); la table de transposition grandit à la demande
+        SokobanSolver microban1 = new SokobanSolver(XsbReader.parse(STANDARD_LEVELS).get(0).getRows(),
+            new SokobanSolver.Options().verbose(false));
+        macro("micro.search.microban1", filter, 200, 2000, () -> check(microban1.solve(), 8));
+        
+        // ========== Macro-mesures ==========
+        
+        macro("macro.grid1", filter, 3, 10, () -> solve(SokobanAStarSearch.grid1, SokobanSolver.Strategy.ASTAR, 15));
+        macro("macro.grid2", filter, 3, 10, () -> solve(SokobanAStarSearch.grid2, SokobanSolver.Strategy.ASTAR, 0));
+        for (XsbReader.Puzzle puzzle : XsbReader.parse(STANDARD_LEVELS)) {
+            String name = puzzle.getTitle().toLowerCase(Locale.ROOT).replace(" ", "");
+            String[] rows = puzzle.getRows();
+            int optimal = OPTIMAL_PUSHES.get(puzzle.getTitle());
+            // XSokoban 1 demande ~10^5 expansions en A*: peu d'itérations, et IDA* en regard
+            boolean large = name.startsWith("xsokoban");
+            int warmup = large ? 1 : 3, iterations = large ? 3 : 10;
+            macro("macro." + name + ".astar", filter, warmup, iterations, () -> solve(rows, SokobanSolver.Strategy.ASTAR, optimal));
+            if (large) {
+                macro("macro." + name + ".idastar", filter, warmup, iterations, () -> solve(rows, SokobanSolver.Strategy.IDASTAR, optimal));
+                // Table de 1 Mo: pression de remplacement sur la table bornée
+                macro("macro." + name + ".astar.table1mo", filter, warmup, iterations,
+                    () -> solve(rows, SokobanSolver.Strategy.ASTAR, 1, optimal));
+            }
+        }
+        
+        if (sink == 42) System.out.println();       // Lecture du puits
+    }
+    
+    // Débit mesuré sur des itérations de durée fixe, latence par lot de BATCH opérations
+    private static void micro(String name, String filter, long iterationNanos, LongSupplier op) {
+        if (!name.contains(filter)) return;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) runFor(op, iterationNanos, null);
+        
+        List<Double> latencies = new ArrayList<>();
+        long ops = 0, nanos = 0, bytes = 0;
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            long done = runFor(op, iterationNanos, latencies);
+            nanos += System.nanoTime() - start;
+            bytes += allocatedBytes() - allocated;
+            ops += done;
+        }
+        report(name, ops * 1e9 / nanos, latencies, THREADS != null ? (double) bytes / ops : Double.NaN, -1);
+    }
+    
+    // Répète op par lots jusqu'à épuisement de la durée; renvoie le nombre d'opérations
+    private static long runFor(LongSupplier op, long durationNanos, List<Double> latencies) {
+        long end = System.nanoTime() + durationNanos;
+        long ops = 0;
+        long now;
+        do {
+            long start = System.nanoTime();
+            for (int i = 0; i < BATCH; i++) sink += op.getAsLong();
+            now = System.nanoTime();
+            if (latencies != null) latencies.add((double) (now - start) / BATCH);
+            ops += BATCH;
+        } while (now < end);
+        return ops;
+    }
+    
+    // Une opération = une résolution complète, chronométrée individuellement
+    private static void macro(String name, String filter, int warmup, int iterations, LongSupplier op) {
+        if (!name.contains(filter)) return;
+        for (int i = 0; i < warmup; i++) sink += op.getAsLong();
+        
+        List<Double> latencies = new ArrayList<>();
+        long nanos = 0, bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            sink += op.getAsLong();
+            long elapsed = System.nanoTime() - start;
+            bytes += allocatedBytes() - allocated;
+            nanos += elapsed;
+            latencies.add((double) elapsed);
+        }
+        report(name, iterations * 1e9 / nanos, latencies, THREADS != null ? (double) bytes / iterations : Double.NaN,
+            lastReplacements);
+    }
+    
+    // Résout le niveau et vérifie le nombre de poussées (0 = sans solution)
+    private static long solve(String[] rows, SokobanSolver.Strategy strategy, int expectedPushes) {
+        return solve(rows, new SokobanSolver.Options().strategy(strategy), expectedPushes);
+    }
+    
+    private static long solve(String[] rows, SokobanSolver.Strategy strategy, int tableMegabytes, int expectedPushes) {
+        return solve(rows, new SokobanSolver.Options().strategy(strategy).tableMegabytes(tableMegabytes), expectedPushes);
+    }
+    
+    private static long solve(String[] rows, SokobanSolver.Options options, int expectedPushes) {
+        return check(new SokobanSolver(rows, options.verbose(false)).solve(), expectedPushes);
+    }
+    
+    // Vérifie le nombre de poussées et relève les remplacements de la table
+    private static long check(SolveResult result, int expectedPushes) {
+        lastReplacements = result.getTableReplacements();
+        int pushes = result.getPushCount();
+        if (pushes != expectedPushes) {
+            throw new IllegalStateException(pushes + " poussées au lieu de " + expectedPushes);
+        }
+        return pushes;
+    }
+    
+    // replacements: -1 si sans objet (micro-mesure, moteur sans table bornée)
+    private static void report(String name, double throughput, List<Double> latencies, double bytesPerOp,
+                               long replacements) {
+        Collections.sort(latencies);
+        System.out.printf(Locale.ROOT, ROW, name, format(throughput),
+            duration(percentile(latencies, 50)), duration(percentile(latencies, 90)),
+            duration(percentile(latencies, 99)), Double.isNaN(bytesPerOp) ? "n/d" : format(bytesPerOp),
+            replacements < 0 ? "-" : replacements < 1000 ? Long.toString(replacements) : format(replacements));
+    }
+    
+    private static double percentile(List<Double> sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+    
+    private static String duration(double nanos) {
+        if (nanos < 1e3) return String.format(Locale.ROOT, "%.1f ns", nanos);
+        if (nanos < 1e6) return String.format(Locale.ROOT, "%.1f µs", nanos / 1e3);
+        if (nanos < 1e9) return String.format(Locale.ROOT, "%.1f ms", nanos / 1e6);
+        return String.format(Locale.ROOT, "%.2f s", nanos / 1e9);
+    }
+    
+    private static String format(double value) {
+        if (value >= 1e6) return String.format(Locale.ROOT, "%.2fM", value / 1e6);
+        if (value >= 1e3) return String.format(Locale.ROOT, "%.1fk", value / 1e3);
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+    
+    // Échantillon d'états variés: parcours en largeur depuis l'état initial
+    private static List<SokobanSolver.State> sampleStates(String[] rows) {
+        char[][] grid = new char[rows.length][];
+        int width = 0;
+        for (String row : rows) width = Math.max(width, row.length());
+        for (int y = 0; y < rows.length; y++) {
+            grid[y] = Arrays.copyOf(rows[y].toCharArray(), width);
+            for (int x = rows[y].length(); x < width; x++) grid[y][x] = '□';
+        }
+        SokobanSolver.Level level = new SokobanSolver.Level(grid, SokobanSolver.Expansion.PUSHES);
+        
+        List<SokobanSolver.State> states = new ArrayList<>();
+        Set<SokobanSolver.State> seen = new HashSet<>();
+        Deque<SokobanSolver.State> queue = new ArrayDeque<>();
+        queue.add(new SokobanSolver.State(level));
+        while (!queue.isEmpty() && states.size() < SAMPLE_STATES) {
+            SokobanSolver.State state = queue.poll();
+            if (!seen.add(state)) continue;
+            states.add(state);
+            queue.addAll(state.getPossibleMoves());
+        }
+        // Moins d'états que l'échantillon: on recycle (indices masqués par SAMPLE_STATES - 1)
+        for (int i = 0; states.size() < SAMPLE_STATES; i++) states.add(states.get(i));
+        return states;
+    }
+    
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+    
+    // Compteur d'allocations par thread de HotSpot, null si la JVM ne le fournit pas
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) return null;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
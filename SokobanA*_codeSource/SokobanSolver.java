@@ -1,3 +1,4 @@
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -8,245 +9,932 @@ import java.util.*;
  */
 public class SokobanSolver {
     
+    /**
+     * Granularité des successeurs générés par la recherche
+     */
+    public enum Expansion {
+        STEPS,      // Un nœud par pas du joueur
+        PUSHES      // Un nœud par poussée, la marche est implicite
+    }
+    
+    /**
+     * Algorithme de recherche utilisé par le solveur
+     */
+    public enum Strategy {
+        ASTAR,      // A* complet (mémoire proportionnelle aux états visités)
+        IDASTAR,    // IDA* en mémoire bornée
+        PARALLEL,   // A* parallèle distribué par hachage (HDA*)
+        BIDIRECTIONAL,  // Poussées depuis le départ, tirages depuis le but (autant de caisses que de cibles)
+        ANYTIME,    // A* pondéré (ARA*): solutions de plus en plus courtes jusqu'à l'échéance (mode poussées)
+        BEAM,       // Faisceau de largeur bornée: rapide et en mémoire fixe, sans garantie
+        EXTERNAL    // A* sur disque: Open et Closed en fichiers triés, doublons écartés par fusion
+    }
+    
+    /**
+     * Reçoit les événements d'avancement d'une recherche (voir Options.progress)
+     */
+    public interface ProgressListener {
+        void onProgress(SearchProgress progress);
+        
+        // Dernier événement, émis une fois la recherche terminée
+        default void onFinished(SearchProgress last) {
+            onProgress(last);
+        }
+    }
+    
+    /**
+     * Paramètres du solveur (mode d'expansion, algorithme et leurs réglages)
+     */
+    public static final class Options {
+        Expansion expansion = Expansion.PUSHES;
+        Strategy strategy = Strategy.ASTAR;
+        long timeLimitMillis = DEFAULT_TIME_LIMIT_MS;   // Échéance de ANYTIME
+        int beamWidth = DEFAULT_BEAM_WIDTH;             // Largeur du faisceau de BEAM
+        boolean goalMacros;                             // Macros de salle des cibles (voir Level)
+        boolean corralPruning = true;                   // Élagage par corral PI (voir Level)
+        int tableMegabytes = DEFAULT_TABLE_MB;          // Table de A* et IDA*, tampons de EXTERNAL
+        Path spillDirectory;                            // Fichiers de EXTERNAL (null = temporaire)
+        boolean verbose = true;                         // Affiche le résultat sur System.out
+        SolutionCache cache;                            // Solutions déjà connues (null = sans cache)
+        ProgressListener progress;                      // Avancement de la recherche (null = aucun)
+        long progressIntervalMillis = DEFAULT_PROGRESS_INTERVAL_MS;
+        int level = -1;                                 // Rang dans le lot, repris par les événements
+        
+        public Options expansion(Expansion expansion) {
+            this.expansion = expansion;
+            return this;
+        }
+        
+        public Options strategy(Strategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+        
+        public Options timeLimitMillis(long timeLimitMillis) {
+            this.timeLimitMillis = timeLimitMillis;
+            return this;
+        }
+        
+        public Options beamWidth(int beamWidth) {
+            if (beamWidth < 1) throw new IllegalArgumentException("Largeur de faisceau invalide: " + beamWidth);
+            this.beamWidth = beamWidth;
+            return this;
+        }
+        
+        public Options goalMacros(boolean goalMacros) {
+            this.goalMacros = goalMacros;
+            return this;
+        }
+        
+        public Options corralPruning(boolean corralPruning) {
+            this.corralPruning = corralPruning;
+            return this;
+        }
+        
+        public Options tableMegabytes(int tableMegabytes) {
+            if (tableMegabytes < 1) throw new IllegalArgumentException("Taille de table invalide: " + tableMegabytes + " Mo");
+            this.tableMegabytes = tableMegabytes;
+            return this;
+        }
+        
+        public Options spillDirectory(Path spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+        
+        public Options verbose(boolean verbose) {
+            this.verbose = verbose;
+            return this;
+        }
+        
+        public Options cache(SolutionCache cache) {
+            this.cache = cache;
+            return this;
+        }
+        
+        // Événement d'avancement au plus toutes les intervalMillis ms
+        public Options progress(ProgressListener progress, long intervalMillis) {
+            if (intervalMillis < 1) throw new IllegalArgumentException("Intervalle invalide: " + intervalMillis);
+            this.progress = progress;
+            this.progressIntervalMillis = intervalMillis;
+            return this;
+        }
+        
+        // Copie des réglages; le cache et l'écouteur restent partagés. BatchSolver
+        // copie les options reçues pour couper l'affichage sans toucher celles de
+        // l'appelant, puis une fois par niveau pour y noter son rang. Le plafond
+        // de tas et la durée d'un lot passent par Budget, hors des options.
+        Options copy() {
+            Options copy = new Options();
+            copy.expansion = expansion;
+            copy.strategy = strategy;
+            copy.timeLimitMillis = timeLimitMillis;
+            copy.beamWidth = beamWidth;
+            copy.goalMacros = goalMacros;
+            copy.corralPruning = corralPruning;
+            copy.tableMegabytes = tableMegabytes;
+            copy.spillDirectory = spillDirectory;
+            copy.verbose = verbose;
+            copy.cache = cache;
+            copy.progress = progress;
+            copy.progressIntervalMillis = progressIntervalMillis;
+            copy.level = level;
+            return copy;
+        }
+    }
+    
+    // ========== CLASSE INTERNE: Niveau (partie immuable) ==========
+    
+    /**
+     * Partie immuable d'un niveau, partagée par tous les états.
+     * Les cases de sol sont numérotées 0..cellCount-1 dans l'ordre de lecture
+     * (ligne par ligne); murs et cibles ne sont stockés qu'une seule fois ici.
+     */
+    public static final class Level {
+        // Directions dans l'ordre U, D, L, R
+        static final int[] DX = {0, 0, -1, 1};
+        static final int[] DY = {-1, 1, 0, 0};
+        static final String[] DIRS = {"U", "D", "L", "R"};
+        
+        final int width, height;
+        final int cellCount;        // Nombre de cases de sol
+        final int words;            // Taille des bitsets (en long)
+        final int[] cellX, cellY;   // Case → coordonnées
+        final int[] cellAt;         // y * width + x → case (-1 si mur)
+        final int[][] neighbor;     // [direction][case] → case voisine (-1 si mur)
+        final Expansion expansion;  // Mode de génération des successeurs
+        final long[] targets;       // Bitset des cibles
+        final int targetCount;
+        final int boxCount;
+        final int[] targetCells;    // Cases des cibles, dans l'ordre croissant
+        final int[][] pushDistance; // [cible][case] → poussées minimales (INFINITE si impossible)
+        final long[] deadSquares;   // Cases d'où aucune cible n'est atteignable
+        final long[] goalRoom;      // Salle des cibles à entrée unique (null si absente ou désactivée)
+        final int goalEntrance;     // Case d'entrée de cette salle (-1 sinon)
+        final boolean corralPruning; // Poussées restreintes au corral PI (mode poussées)
+        final int[] goalDepth;      // Poussées depuis l'entrée (choix de la cible la plus profonde)
+        final long[] zobristBox;    // Clés de Zobrist: caisse sur une case
+        final long[] zobristPlayer; // Clés de Zobrist: joueur sur une case
+        
+        final long[] initialBoxes;
+        final int initialPlayer;
+        
+        public Level(char[][] grid, Expansion expansion) {
+            this(grid, expansion, false);
+        }
+        
+        // goalMacros: une caisse poussée sur l'entrée de la salle des cibles peut
+        // aussi être acheminée d'un bloc vers la cible libre la plus profonde. Ce
+        // successeur s'ajoute à la poussée simple (aucun élagage, l'optimalité
+        // est préservée); désactivé par défaut car il élargit le branchement.
+        public Level(char[][] grid, Expansion expansion, boolean goalMacros) {
+            this(grid, expansion, goalMacros, true);
+        }
+        
+        // corralPruning: restreint les poussées à celles qui entrent dans un corral
+        // PI (voir State.findPICorral); désactivable pour comparer les résultats
+        public Level(char[][] grid, Expansion expansion, boolean goalMacros, boolean corralPruning) {
+            this.expansion = expansion;
+            this.corralPruning = corralPruning;
+            height = grid.length;
+            int w = 0;
+            for (char[] row : grid) w = Math.max(w, row.length);
+            width = w;
+            
+            cellAt = new int[width * height];
+            Arrays.fill(cellAt, -1);
+            int n = 0;
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < grid[y].length; x++) {
+                    if (isFloor(grid[y][x])) cellAt[y * width + x] = n++;
+                }
+            }
+            cellCount = n;
+            words = (n + 63) >>> 6;
+            cellX = new int[n];
+            cellY = new int[n];
+            targets = new long[words];
+            long[] boxes = new long[words];
+            int player = -1;
+            int tc = 0;
+            
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < grid[y].length; x++) {
+                    int c = cellAt[y * width + x];
+                    if (c < 0) continue;
+                    cellX[c] = x;
+                    cellY[c] = y;
+                    char ch = grid[y][x];
+                    if (ch == 'T' || ch == '*' || ch == '+') {
+                        set(targets, c);
+                        tc++;
+                    }
+                    if (ch == '$' || ch == '*') set(boxes, c);
+                    if (ch == '@' || ch == '+') player = c;
+                }
+            }
+            if (player < 0) {
+                throw new IllegalArgumentException("Joueur absent de la grille");
+            }
+            targetCount = tc;
+            int bc = 0;
+            for (long word : boxes) bc += Long.bitCount(word);
+            boxCount = bc;
+            targetCells = new int[tc];
+            for (int c = 0, k = 0; c < n; c++) {
+                if (get(targets, c)) targetCells[k++] = c;
+            }
+            initialBoxes = boxes;
+            initialPlayer = player;
+            
+            neighbor = new int[4][n];
+            for (int d = 0; d < 4; d++) {
+                for (int c = 0; c < n; c++) {
+                    neighbor[d][c] = cellAt(cellX[c] + DX[d], cellY[c] + DY[d]);
+                }
+            }
+            
+            // Graine fixe: les hachages sont reproductibles d'une exécution à l'autre
+            SplittableRandom random = new SplittableRandom(0x5EED5EEDL);
+            zobristBox = new long[n];
+            zobristPlayer = new long[n];
+            for (int c = 0; c < n; c++) {
+                zobristBox[c] = random.nextLong();
+                zobristPlayer[c] = random.nextLong();
+            }
+            
+            pushDistance = new int[tc][];
+            for (int t = 0; t < tc; t++) {
+                pushDistance[t] = pullDistances(targetCells[t]);
+            }
+            
+            // Une case est morte si aucune table ne l'atteint (coins, bords de mur sans cible...)
+            deadSquares = new long[words];
+            for (int c = 0; c < n; c++) {
+                boolean alive = false;
+                for (int t = 0; t < tc && !alive; t++) {
+                    alive = pushDistance[t][c] != HungarianMatching.INFINITE;
+                }
+                if (!alive) set(deadSquares, c);
+            }
+            
+            int entrance = -1;
+            long[] room = null;
+            if (goalMacros && expansion == Expansion.PUSHES && tc > 0) {
+                // Plus petite zone contenant toutes les cibles, séparée du reste par une seule case
+                int best = Integer.MAX_VALUE;
+                for (int e = 0; e < n; e++) {
+                    if (get(targets, e) || get(boxes, e) || e == player) continue;
+                    long[] blocked = new long[words];
+                    set(blocked, e);
+                    long[] zone = reachable(blocked, targetCells[0]);
+                    if (get(zone, player) || !containsAll(zone, targets) || intersects(zone, boxes)) continue;
+                    int size = 0;
+                    for (long word : zone) size += Long.bitCount(word);
+                    if (size < best) {
+                        best = size;
+                        entrance = e;
+                        room = zone;
+                    }
+                }
+            }
+            goalEntrance = entrance;
+            goalRoom = room;
+            goalDepth = entrance >= 0 ? pushDistancesFrom(entrance) : null;
+        }
+        
+        private static boolean containsAll(long[] bits, long[] subset) {
+            for (int w = 0; w < bits.length; w++) {
+                if ((subset[w] & ~bits[w]) != 0) return false;
+            }
+            return true;
+        }
+        
+        private static boolean intersects(long[] a, long[] b) {
+            for (int w = 0; w < a.length; w++) {
+                if ((a[w] & b[w]) != 0) return true;
+            }
+            return false;
+        }
+        
+        // Vrai si la case est un tunnel pour un déplacement dans la direction d
+        // (murs des deux côtés perpendiculaires)
+        boolean isTunnel(int cell, int d) {
+            int side = d < 2 ? 2 : 0;
+            return neighbor[side][cell] < 0 && neighbor[side + 1][cell] < 0;
+        }
+        
+        // Parcours en largeur inverse (tirages) depuis une cible: nombre minimal de
+        // poussées pour amener une caisse seule de chaque case jusqu'à cette cible
+        private int[] pullDistances(int target) {
+            int[] dist = new int[cellCount];
+            Arrays.fill(dist, HungarianMatching.INFINITE);
+            int[] queue = new int[cellCount];
+            int head = 0, tail = 0;
+            dist[target] = 0;
+            queue[tail++] = target;
+            while (head < tail) {
+                int box = queue[head++];
+                for (int d = 0; d < 4; d++) {
+                    // Caisse tirée de box vers from, le joueur recule sur behind
+                    int from = neighbor[d][box];
+                    if (from < 0 || dist[from] != HungarianMatching.INFINITE) continue;
+                    int behind = neighbor[d][from];
+                    if (behind < 0) continue;
+                    dist[from] = dist[box] + 1;
+                    queue[tail++] = from;
+                }
+            }
+            return dist;
+        }
+        
+        // Parcours en largeur direct (poussées) depuis une case: nombre minimal de
+        // poussées pour amener une caisse seule de cette case vers chaque case
+        int[] pushDistancesFrom(int source) {
+            return pushDistancesFrom(source, new long[words]);
+        }
+        
+        // Idem, les cases d'obstacles (caisses immobiles) étant infranchissables
+        int[] pushDistancesFrom(int source, long[] obstacles) {
+            int[] dist = new int[cellCount];
+            Arrays.fill(dist, HungarianMatching.INFINITE);
+            int[] queue = new int[cellCount];
+            int head = 0, tail = 0;
+            dist[source] = 0;
+            queue[tail++] = source;
+            while (head < tail) {
+                int box = queue[head++];
+                for (int d = 0; d < 4; d++) {
+                    int to = neighbor[d][box];
+                    if (to < 0 || dist[to] != HungarianMatching.INFINITE || get(obstacles, to)) continue;
+                    int from = neighbor[d ^ 1][box];
+                    if (from < 0 || get(obstacles, from)) continue;
+                    dist[to] = dist[box] + 1;
+                    queue[tail++] = to;
+                }
+            }
+            return dist;
+        }
+        
+        // Hachage de Zobrist complet d'une configuration
+        long hash(long[] boxes, int player) {
+            long h = zobristPlayer[player];
+            for (int w = 0; w < boxes.length; w++) {
+                long word = boxes[w];
+                while (word != 0) {
+                    h ^= zobristBox[(w << 6) + Long.numberOfTrailingZeros(word)];
+                    word &= word - 1;
+                }
+            }
+            return h;
+        }
+        
+        private static boolean isFloor(char c) {
+            return c == '□' || c == 'T' || c == '@' || c == '+' || c == '$' || c == '*';
+        }
+        
+        // Case de sol aux coordonnées (x, y), -1 si mur ou hors grille
+        int cellAt(int x, int y) {
+            if (x < 0 || y < 0 || x >= width || y >= height) return -1;
+            return cellAt[y * width + x];
+        }
+        
+        boolean isTarget(int cell) {
+            return get(targets, cell);
+        }
+        
+        boolean isDead(int cell) {
+            return get(deadSquares, cell);
+        }
+        
+        // Cases accessibles depuis une case sans pousser de caisse
+        long[] reachable(long[] boxes, int from) {
+            long[] reach = new long[words];
+            int[] stack = new int[cellCount];
+            int top = 0;
+            set(reach, from);
+            stack[top++] = from;
+            while (top > 0) {
+                int cell = stack[--top];
+                for (int d = 0; d < 4; d++) {
+                    int next = neighbor[d][cell];
+                    if (next < 0 || get(boxes, next) || get(reach, next)) continue;
+                    set(reach, next);
+                    stack[top++] = next;
+                }
+            }
+            return reach;
+        }
+        
+        // Position canonique du joueur: plus petite case de sa zone accessible.
+        // Deux états dont le joueur est dans la même zone deviennent identiques.
+        int canonicalPlayer(long[] boxes, int from) {
+            if (expansion != Expansion.PUSHES) return from;
+            long[] reach = reachable(boxes, from);
+            for (int w = 0; w < reach.length; w++) {
+                if (reach[w] != 0) return (w << 6) + Long.numberOfTrailingZeros(reach[w]);
+            }
+            return from;
+        }
+        
+        // Reconstruit la grille affichable pour une configuration donnée
+        char[][] render(long[] boxes, int player) {
+            char[][] out = new char[height][width];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int c = cellAt[y * width + x];
+                    if (c < 0) {
+                        out[y][x] = '■';
+                    } else if (get(boxes, c)) {
+                        out[y][x] = isTarget(c) ? '*' : '$';
+                    } else if (c == player) {
+                        out[y][x] = isTarget(c) ? '+' : '@';
+                    } else {
+                        out[y][x] = isTarget(c) ? 'T' : '□';
+                    }
+                }
+            }
+            return out;
+        }
+        
+        // Indice de direction (0..3) d'un mouvement U/D/L/R
+        static int direction(String move) {
+            return direction(move.charAt(0));
+        }
+        
+        static int direction(char move) {
+            switch (move) {
+                case 'U': return 0;
+                case 'D': return 1;
+                case 'L': return 2;
+                default: return 3;
+            }
+        }
+        
+        static boolean get(long[] bits, int i) {
+            return (bits[i >>> 6] & (1L << i)) != 0;
+        }
+        
+        static void set(long[] bits, int i) {
+            bits[i >>> 6] |= 1L << i;
+        }
+        
+        static void clear(long[] bits, int i) {
+            bits[i >>> 6] &= ~(1L << i);
+        }
+    }
+    
     // ========== CLASSE INTERNE: État du jeu ==========
     
     /**
-     * Représente un état du puzzle Sokoban
+     * Représente un état du puzzle Sokoban: seules les caisses (bitset sur
+     * les cases de sol) et la case du joueur sont propres à l'état.
      */
     public static class State {
-        public char[][] grid;       // Configuration de la grille
+        private static final long[] DEAD_CORRAL = new long[0];   // Corral où aucune caisse ne peut entrer
+        
+        public final Level level;   // Niveau partagé (murs, cibles)
+        final long[] boxes;         // Bitset des caisses
+        final int player;           // Case du joueur
+        final long hash;            // Clé de Zobrist (caisses + joueur)
+        final int pushFrom;         // Case quittée par la caisse poussée (-1 sinon)
         public int g;               // Coût réel (nombre de poussées)
         public int f;               // Coût estimé total (g + h)
         public State parent;        // État précédent
-        public String move;         // Direction du mouvement (U/D/L/R)
+        public String move;         // Direction du mouvement (U/D/L/R), une lettre par poussée pour une macro
         
-        public int playerX, playerY;
-        public List<int[]> boxes;
+        // État initial du niveau
+        public State(Level level) {
+            this(level, level.initialBoxes.clone(),
+                 level.canonicalPlayer(level.initialBoxes, level.initialPlayer), -1, 0, null, null);
+        }
         
-        public State(char[][] grid, int g, int f, State parent, String move) {
-            this.grid = deepCopy(grid);
+        // État quelconque du niveau (joueur normalisé en mode poussées)
+        State(Level level, long[] boxes, int player) {
+            this(level, boxes, level.canonicalPlayer(boxes, player), -1, 0, null, null);
+        }
+        
+        private State(Level level, long[] boxes, int player, int pushFrom, int g, State parent, String move) {
+            this(level, boxes, player, level.hash(boxes, player), pushFrom, g, parent, move);
+        }
+        
+        private State(Level level, long[] boxes, int player, long hash, int pushFrom, int g,
+                      State parent, String move) {
+            this.level = level;
+            this.boxes = boxes;
+            this.player = player;
+            this.hash = hash;
+            this.pushFrom = pushFrom;
             this.g = g;
-            this.f = f;
             this.parent = parent;
             this.move = move;
-            extractPositions();
-        }
-        
-        // Extrait positions du joueur et des caisses de la grille
-        private void extractPositions() {
-            boxes = new ArrayList<>();
-            for (int i = 0; i < grid.length; i++) {
-                for (int j = 0; j < grid[i].length; j++) {
-                    char c = grid[i][j];
-                    if (c == '@' || c == '+') {
-                        playerX = j;
-                        playerY = i;
-                    }
-                    if (c == '$' || c == '*') {
-                        boxes.add(new int[]{j, i});
-                    }
+        }
+        
+        public boolean hasBox(int cell) {
+            return Level.get(boxes, cell);
+        }
+        
+        // Cases occupées par les caisses, dans l'ordre croissant
+        int[] boxCells() {
+            int count = 0;
+            for (long word : boxes) count += Long.bitCount(word);
+            int[] cells = new int[count];
+            int k = 0;
+            for (int w = 0; w < boxes.length; w++) {
+                long word = boxes[w];
+                while (word != 0) {
+                    cells[k++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
                 }
             }
+            return cells;
+        }
+        
+        // Grille affichable de l'état
+        public char[][] toGrid() {
+            return level.render(boxes, player);
         }
         
         // Vérifie si toutes les caisses sont sur des cibles
         public boolean isGoal() {
-            for (int[] box : boxes) {
-                if (grid[box[1]][box[0]] != '*') {
-                    return false;
-                }
+            boolean any = false;
+            for (int w = 0; w < boxes.length; w++) {
+                if ((boxes[w] & ~level.targets[w]) != 0) return false;
+                any |= boxes[w] != 0;
             }
-            return boxes.size() > 0;
+            return any;
         }
         
         // Calcule l'heuristique h(n) = distance optimale caisses→cibles + joueur→caisse
-        public int heuristic(List<int[]> targets) {
-            if (boxes.isEmpty() || targets.isEmpty()) return 0;
-            if (hasDeadlock()) return Integer.MAX_VALUE;
-            return computeMatching(targets) + playerToBoxDistance();
+        // (en mode poussées la position du joueur est canonique: seul l'appariement compte)
+        public int heuristic() {
+            int[] cells = boxCells();
+            if (cells.length == 0 || level.targetCount == 0) return 0;
+            if (hasDeadlock(cells)) return Integer.MAX_VALUE;
+            int h = computeMatching(cells);
+            if (h == HungarianMatching.INFINITE) return Integer.MAX_VALUE;
+            if (level.expansion == Expansion.STEPS) h += playerToBoxDistance(cells);
+            return h;
         }
         
-        // Détecte si une caisse est bloquée dans un coin
-        private boolean hasDeadlock() {
-            for (int[] box : boxes) {
-                int x = box[0];
-                int y = box[1];
-                if (grid[y][x] == '*') continue;
-                if (isCornerDeadlock(x, y)) return true;
+        // Détecte une caisse sur une case morte (seul l'état initial peut en avoir:
+        // la génération des successeurs refuse ces poussées) ou un gel provoqué
+        // par la dernière poussée
+        private boolean hasDeadlock(int[] cells) {
+            if (pushFrom >= 0) return isFreezeDeadlock(pushedBox());
+            for (int box : cells) {
+                if (level.isDead(box)) return true;
             }
             return false;
         }
         
-        // Vérifie les 4 patterns de coin deadlock
-        private boolean isCornerDeadlock(int x, int y) {
-            boolean wL = isWall(x - 1, y);
-            boolean wR = isWall(x + 1, y);
-            boolean wU = isWall(x, y - 1);
-            boolean wD = isWall(x, y + 1);
-            
-            if (wL && wU) return isBlocked(x + 1, y) && isBlocked(x, y + 1);
-            if (wR && wU) return isBlocked(x - 1, y) && isBlocked(x, y + 1);
-            if (wL && wD) return isBlocked(x + 1, y) && isBlocked(x, y - 1);
-            if (wR && wD) return isBlocked(x - 1, y) && isBlocked(x, y - 1);
-            return false;
+        // Case d'arrivée de la caisse déplacée par le dernier mouvement (macros comprises)
+        int pushedBox() {
+            int cell = pushFrom;
+            for (int i = 0; i < move.length(); i++) {
+                cell = level.neighbor[Level.direction(move.charAt(i))][cell];
+            }
+            return cell;
         }
         
-        private boolean isWall(int x, int y) {
-            if (y < 0 || y >= grid.length || x < 0 || x >= grid[y].length) return true;
-            return grid[y][x] == '■';
+        // Vrai si la caisse est gelée (immobile sur les deux axes) avec au moins
+        // une caisse gelée hors cible; seul le voisinage de la caisse est examiné
+        private boolean isFreezeDeadlock(int box) {
+            boolean[] offTarget = new boolean[1];
+            return isFrozen(box, new long[level.words], offTarget) && offTarget[0];
         }
         
-        private boolean isBlocked(int x, int y) {
-            if (y < 0 || y >= grid.length || x < 0 || x >= grid[y].length) return true;
-            char c = grid[y][x];
-            return c == '■' || c == '$' || c == '*';
+        // Pendant son examen, la caisse est traitée comme un mur pour éviter les cycles
+        private boolean isFrozen(int box, long[] asWall, boolean[] offTarget) {
+            Level.set(asWall, box);
+            boolean frozen = isAxisBlocked(box, 0, asWall, offTarget)
+                          && isAxisBlocked(box, 2, asWall, offTarget);
+            Level.clear(asWall, box);
+            if (frozen && !level.isTarget(box)) offTarget[0] = true;
+            return frozen;
         }
         
-        // Calcule l'assignation optimale caisses → cibles (brute force)
-        private int computeMatching(List<int[]> targets) {
-            int n = boxes.size();
-            if (n == 0) return 0;
-            return findOptimalAssignment(targets, new boolean[targets.size()], 0, 0);
+        // Axe vertical (axis = 0: U/D) ou horizontal (axis = 2: L/R)
+        private boolean isAxisBlocked(int box, int axis, long[] asWall, boolean[] offTarget) {
+            int a = level.neighbor[axis][box];
+            int b = level.neighbor[axis + 1][box];
+            if (a < 0 || b < 0) return true;
+            if (Level.get(asWall, a) || Level.get(asWall, b)) return true;
+            if (level.isDead(a) && level.isDead(b)) return true;
+            if (hasBox(a) && isFrozen(a, asWall, offTarget)) return true;
+            return hasBox(b) && isFrozen(b, asWall, offTarget);
         }
         
-        // Trouve la meilleure assignation récursivement
-        private int findOptimalAssignment(List<int[]> targets, boolean[] used, int boxIdx, int cost) {
-            if (boxIdx >= boxes.size()) return cost;
-            
-            int minCost = Integer.MAX_VALUE;
-            int[] box = boxes.get(boxIdx);
-            
-            for (int i = 0; i < targets.size(); i++) {
-                if (used[i]) continue;
-                
-                int[] target = targets.get(i);
-                int dist = Math.abs(box[0] - target[0]) + Math.abs(box[1] - target[1]);
-                
-                used[i] = true;
-                int result = findOptimalAssignment(targets, used, boxIdx + 1, cost + dist);
-                used[i] = false;
-                
-                minCost = Math.min(minCost, result);
+        // Calcule l'assignation optimale caisses → cibles (algorithme hongrois sur
+        // les distances en poussées précalculées)
+        private int computeMatching(int[] cells) {
+            int[][] cost = new int[cells.length][level.targetCount];
+            for (int i = 0; i < cells.length; i++) {
+                for (int j = 0; j < level.targetCount; j++) {
+                    cost[i][j] = level.pushDistance[j][cells[i]];
+                }
             }
-            return minCost;
+            return HungarianMatching.solve(cost, cells.length, level.targetCount);
         }
         
         // Distance du joueur à la caisse la plus proche
-        private int playerToBoxDistance() {
-            if (boxes.isEmpty()) return 0;
+        private int playerToBoxDistance(int[] cells) {
+            int px = level.cellX[player];
+            int py = level.cellY[player];
             int minDist = Integer.MAX_VALUE;
-            for (int[] box : boxes) {
-                int dist = Math.abs(playerX - box[0]) + Math.abs(playerY - box[1]);
+            for (int box : cells) {
+                int dist = Math.abs(px - level.cellX[box]) + Math.abs(py - level.cellY[box]);
                 minDist = Math.min(minDist, dist);
             }
             return minDist;
         }
         
-        // Génère tous les mouvements possibles (4 directions)
+        // Génère les successeurs selon le mode d'expansion du niveau
         public List<State> getPossibleMoves() {
-            List<State> moves = new ArrayList<>();
-            int[] dx = {0, 0, -1, 1};
-            int[] dy = {-1, 1, 0, 0};
-            String[] dirs = {"U", "D", "L", "R"};
+            if (level.expansion == Expansion.PUSHES) return getPossiblePushes();
             
-            for (int i = 0; i < 4; i++) {
-                State next = tryMove(dx[i], dy[i], dirs[i]);
+            List<State> moves = new ArrayList<>(4);
+            for (int d = 0; d < 4; d++) {
+                State next = tryMove(d);
                 if (next != null) moves.add(next);
             }
             return moves;
         }
         
-        // Essaie un mouvement dans une direction
-        private State tryMove(int dx, int dy, String dir) {
-            int newX = playerX + dx;
-            int newY = playerY + dy;
-            
-            if (newY < 0 || newY >= grid.length || newX < 0 || newX >= grid[newY].length) {
-                return null;
+        // Génère toutes les poussées réalisables depuis la zone accessible au joueur
+        // (restreintes aux poussées vers un corral PI s'il en existe un)
+        private List<State> getPossiblePushes() {
+            List<State> moves = new ArrayList<>();
+            long[] reach = reachable();
+            long[] corral = level.corralPruning ? findPICorral(reach) : null;
+            if (corral == DEAD_CORRAL) return moves;
+            int[][] nb = level.neighbor;
+            for (int box : boxCells()) {
+                for (int d = 0; d < 4; d++) {
+                    int from = nb[d ^ 1][box];
+                    if (from < 0 || !Level.get(reach, from)) continue;
+                    int behind = nb[d][box];
+                    if (behind < 0 || hasBox(behind) || level.isDead(behind)) continue;
+                    if (corral != null && !Level.get(corral, behind)) continue;
+                    // La macro s'ajoute à la poussée simple: le coût reste exact, l'optimalité est préservée
+                    if (behind == level.goalEntrance && !Level.get(level.goalRoom, box)) {
+                        State macro = createGoalMacro(box, d);
+                        if (macro != null) moves.add(macro);
+                    }
+                    moves.add(createTunnelPush(box, d));
+                }
             }
+            return moves;
+        }
+        
+        // Corral PI: zone inaccessible au joueur dont les caisses de bordure ne
+        // peuvent être poussées que vers l'intérieur, et toutes depuis la zone du
+        // joueur. Une solution doit y entrer tôt ou tard: les autres poussées sont
+        // inutiles pour l'instant. Renvoie le corral demandant le moins de
+        // poussées, DEAD_CORRAL s'il est impossible d'y entrer, null sinon.
+        private long[] findPICorral(long[] reach) {
+            int[][] nb = level.neighbor;
+            long[] seen = reach.clone();
+            for (int w = 0; w < seen.length; w++) seen[w] |= boxes[w];
+            long[] best = null;
+            int bestPushes = Integer.MAX_VALUE;
             
-            char nextCell = grid[newY][newX];
-            
-            if (nextCell == '■') return null;
-            
-            // Cas: pousser une caisse
-            if (nextCell == '$' || nextCell == '*') {
-                int boxX = newX + dx;
-                int boxY = newY + dy;
+            for (int cell = 0; cell < level.cellCount; cell++) {
+                if (Level.get(seen, cell)) continue;
+                long[] zone = level.reachable(boxes, cell);
+                for (int w = 0; w < seen.length; w++) seen[w] |= zone[w];
                 
-                if (boxY < 0 || boxY >= grid.length || boxX < 0 || boxX >= grid[boxY].length) {
-                    return null;
+                // Inutile si le corral et sa bordure sont déjà résolus. Une cible
+                // libre n'exige une caisse que s'il y a autant de caisses que de cibles.
+                boolean useful = level.targetCount == level.boxCount && Level.intersects(zone, level.targets);
+                int pushes = 0;
+                boolean pi = true;
+                for (int box : boxCells()) {
+                    if (!borders(zone, box)) continue;
+                    if (!level.isTarget(box)) useful = true;
+                    for (int d = 0; d < 4 && pi; d++) {
+                        int from = nb[d ^ 1][box];
+                        int to = nb[d][box];
+                        if (from < 0 || to < 0 || level.isDead(to) || Level.get(zone, from)) continue;
+                        if (Level.get(zone, to)) {
+                            // Vers l'intérieur: le joueur doit pouvoir la faire dès maintenant
+                            if (Level.get(reach, from)) pushes++;
+                            else pi = false;
+                        } else if (!hasBox(to) || !borders(zone, to)) {
+                            // Vers l'extérieur, non bloquée par une autre caisse de bordure
+                            pi = false;
+                        }
+                    }
+                    if (!pi) break;
+                }
+                if (!pi || !useful) continue;
+                if (pushes == 0) return DEAD_CORRAL;
+                if (pushes < bestPushes) {
+                    bestPushes = pushes;
+                    best = zone;
                 }
-                
-                char behind = grid[boxY][boxX];
-                if (behind != '□' && behind != 'T') return null;
-                
-                return createStateAfterPush(newX, newY, boxX, boxY, dx, dy, dir);
             }
-            
-            // Cas: mouvement simple
-            if (nextCell == '□' || nextCell == 'T') {
-                return createStateAfterMove(newX, newY, dir);
+            return best;
+        }
+        
+        // Vrai si la case touche la zone
+        private boolean borders(long[] zone, int cell) {
+            for (int d = 0; d < 4; d++) {
+                int next = level.neighbor[d][cell];
+                if (next >= 0 && Level.get(zone, next)) return true;
             }
-            
-            return null;
+            return false;
         }
         
-        // Crée nouvel état après mouvement simple (sans poussée)
-        private State createStateAfterMove(int newX, int newY, String dir) {
-            char[][] newGrid = deepCopy(grid);
+        // Génère tous les tirages réalisables (recherche arrière depuis les buts):
+        // le joueur recule d'une case en tirant la caisse voisine
+        List<State> getPossiblePulls() {
+            List<State> moves = new ArrayList<>();
+            long[] reach = reachable();
+            int[][] nb = level.neighbor;
+            for (int box : boxCells()) {
+                for (int d = 0; d < 4; d++) {
+                    int to = nb[d][box];
+                    if (to < 0 || !Level.get(reach, to)) continue;
+                    int back = nb[d][to];
+                    if (back < 0 || hasBox(back)) continue;
+                    moves.add(createStateAfterPull(box, to, back, d));
+                }
+            }
+            return moves;
+        }
+        
+        // Pousse la caisse d'une case dans une direction, sans vérifier l'accès du joueur
+        State push(int box, int d) {
+            return createStateAfterPush(box, level.neighbor[d][box], d);
+        }
+        
+        // Cases accessibles au joueur sans pousser de caisse
+        long[] reachable() {
+            return level.reachable(boxes, player);
+        }
+        
+        // Plus court chemin de marche d'une case vers une autre (null si inaccessible)
+        List<String> walk(int start, int target) {
+            int[] previous = new int[level.cellCount];
+            Arrays.fill(previous, -1);
+            int[] queue = new int[level.cellCount];
+            int head = 0, tail = 0;
+            previous[start] = start;
+            queue[tail++] = start;
+            while (head < tail && previous[target] < 0) {
+                int cell = queue[head++];
+                for (int d = 0; d < 4; d++) {
+                    int next = level.neighbor[d][cell];
+                    if (next < 0 || hasBox(next) || previous[next] >= 0) continue;
+                    previous[next] = cell;
+                    queue[tail++] = next;
+                }
+            }
+            if (previous[target] < 0) return null;
             
-            char oldCell = grid[playerY][playerX];
-            if (oldCell == '@') {
-                newGrid[playerY][playerX] = '□';
-            } else if (oldCell == '+') {
-                newGrid[playerY][playerX] = 'T';
+            LinkedList<String> path = new LinkedList<>();
+            for (int cell = target; cell != start; cell = previous[cell]) {
+                int from = previous[cell];
+                for (int d = 0; d < 4; d++) {
+                    if (level.neighbor[d][from] == cell) {
+                        path.addFirst(Level.DIRS[d]);
+                        break;
+                    }
+                }
             }
+            return path;
+        }
+        
+        // Essaie un mouvement dans une direction
+        private State tryMove(int d) {
+            int next = level.neighbor[d][player];
+            if (next < 0) return null;
             
-            char newCell = grid[newY][newX];
-            if (newCell == '□') {
-                newGrid[newY][newX] = '@';
-            } else if (newCell == 'T') {
-                newGrid[newY][newX] = '+';
+            // Cas: pousser une caisse
+            if (hasBox(next)) {
+                int behind = level.neighbor[d][next];
+                if (behind < 0 || hasBox(behind) || level.isDead(behind)) return null;
+                return createStateAfterPush(next, behind, d);
             }
             
-            return new State(newGrid, g, 0, this, dir);
+            // Cas: mouvement simple
+            return createStateAfterMove(next, d);
+        }
+        
+        // Crée nouvel état après mouvement simple (sans poussée)
+        private State createStateAfterMove(int next, int d) {
+            long h = hash ^ level.zobristPlayer[player] ^ level.zobristPlayer[next];
+            return new State(level, boxes, next, h, -1, g, this, Level.DIRS[d]);
         }
         
         // Crée nouvel état après poussée (g augmente de 1)
-        private State createStateAfterPush(int bx, int by, int nbx, int nby, int dx, int dy, String dir) {
-            char[][] newGrid = deepCopy(grid);
-            
-            char oldCell = grid[playerY][playerX];
-            if (oldCell == '@') {
-                newGrid[playerY][playerX] = '□';
-            } else if (oldCell == '+') {
-                newGrid[playerY][playerX] = 'T';
+        private State createStateAfterPush(int box, int behind, int d) {
+            long[] newBoxes = boxes.clone();
+            Level.clear(newBoxes, box);
+            Level.set(newBoxes, behind);
+            int newPlayer = level.canonicalPlayer(newBoxes, box);
+            long h = hash ^ level.zobristPlayer[player] ^ level.zobristPlayer[newPlayer]
+                         ^ level.zobristBox[box] ^ level.zobristBox[behind];
+            return new State(level, newBoxes, newPlayer, h, box, g + 1, this, Level.DIRS[d]);
+        }
+        
+        // Poussée prolongée tant que la caisse et le joueur restent dans un tunnel:
+        // les positions intermédiaires n'offrent aucun autre choix utile
+        private State createTunnelPush(int box, int d) {
+            int[][] nb = level.neighbor;
+            int to = nb[d][box];
+            StringBuilder letters = new StringBuilder(Level.DIRS[d]);
+            while (!level.isTarget(to) && level.isTunnel(to, d) && level.isTunnel(nb[d ^ 1][to], d)) {
+                int next = nb[d][to];
+                if (next < 0 || hasBox(next) || level.isDead(next)) break;
+                to = next;
+                letters.append(Level.DIRS[d]);
             }
+            return createStateAfterMacro(box, to, nb[d ^ 1][to], letters.toString());
+        }
+        
+        // Macro de salle des cibles: la caisse poussée sur l'entrée est conduite,
+        // poussée par poussée, jusqu'à la cible libre atteignable la plus profonde.
+        // Parcours en largeur sur (case de la caisse, zone du joueur), autres caisses fixes.
+        private State createGoalMacro(int box, int d) {
+            int[][] nb = level.neighbor;
+            long[] others = boxes.clone();
+            Level.clear(others, box);
             
-            char boxCell = grid[by][bx];
-            if (boxCell == '$') {
-                newGrid[by][bx] = '@';
-            } else if (boxCell == '*') {
-                newGrid[by][bx] = '+';
+            List<int[]> nodes = new ArrayList<>();          // {caisse, joueur, parent, direction}
+            Set<Long> visited = new HashSet<>();
+            nodes.add(new int[]{level.goalEntrance, box, -1, d});
+            int bestNode = -1;
+            int bestDepth = -1;
+            for (int i = 0; i < nodes.size(); i++) {
+                int[] node = nodes.get(i);
+                long[] config = others.clone();
+                Level.set(config, node[0]);
+                long key = (long) node[0] * level.cellCount + level.canonicalPlayer(config, node[1]);
+                if (!visited.add(key)) continue;
+                
+                if (level.isTarget(node[0])) {
+                    int depth = level.goalDepth[node[0]];
+                    if (depth > bestDepth && keepsRoomFillable(others, node[0])) {
+                        bestDepth = depth;
+                        bestNode = i;
+                    }
+                    continue;
+                }
+                long[] reach = level.reachable(config, node[1]);
+                for (int e = 0; e < 4; e++) {
+                    int from = nb[e ^ 1][node[0]];
+                    int to = nb[e][node[0]];
+                    if (from < 0 || !Level.get(reach, from)) continue;
+                    if (to < 0 || !(Level.get(level.goalRoom, to) || to == level.goalEntrance)
+                        || Level.get(others, to) || level.isDead(to)) continue;
+                    nodes.add(new int[]{to, node[0], i, e});
+                }
             }
+            if (bestNode < 0) return null;
             
-            char behindCell = grid[nby][nbx];
-            if (behindCell == '□') {
-                newGrid[nby][nbx] = '$';
-            } else if (behindCell == 'T') {
-                newGrid[nby][nbx] = '*';
+            StringBuilder letters = new StringBuilder();
+            for (int i = bestNode; i >= 0; i = nodes.get(i)[2]) {
+                letters.insert(0, Level.DIRS[nodes.get(i)[3]]);
             }
-            
-            return new State(newGrid, g + 1, 0, this, dir);
+            int[] last = nodes.get(bestNode);
+            return createStateAfterMacro(box, last[0], last[1], letters.toString());
         }
         
-        private static char[][] deepCopy(char[][] original) {
-            char[][] copy = new char[original.length][];
-            for (int i = 0; i < original.length; i++) {
-                copy[i] = Arrays.copyOf(original[i], original[i].length);
+        // Vrai si, la cible occupée, chaque autre cible libre de la salle reste
+        // atteignable depuis l'entrée par une caisse seule
+        private boolean keepsRoomFillable(long[] others, int target) {
+            long[] obstacles = others.clone();
+            Level.set(obstacles, target);
+            int[] dist = level.pushDistancesFrom(level.goalEntrance, obstacles);
+            for (int t : level.targetCells) {
+                if (Level.get(obstacles, t)) continue;
+                if (dist[t] == HungarianMatching.INFINITE) return false;
             }
-            return copy;
+            return true;
+        }
+        
+        // Crée nouvel état après une suite de poussées de la même caisse (g augmente d'autant)
+        private State createStateAfterMacro(int box, int to, int lastPlayer, String letters) {
+            long[] newBoxes = boxes.clone();
+            Level.clear(newBoxes, box);
+            Level.set(newBoxes, to);
+            int newPlayer = level.canonicalPlayer(newBoxes, lastPlayer);
+            long h = hash ^ level.zobristPlayer[player] ^ level.zobristPlayer[newPlayer]
+                         ^ level.zobristBox[box] ^ level.zobristBox[to];
+            return new State(level, newBoxes, newPlayer, h, box, g + letters.length(), this, letters);
+        }
+        
+        // Crée nouvel état après tirage (g augmente de 1, move = sens de la caisse)
+        private State createStateAfterPull(int box, int to, int back, int d) {
+            long[] newBoxes = boxes.clone();
+            Level.clear(newBoxes, box);
+            Level.set(newBoxes, to);
+            int newPlayer = level.canonicalPlayer(newBoxes, back);
+            long h = hash ^ level.zobristPlayer[player] ^ level.zobristPlayer[newPlayer]
+                         ^ level.zobristBox[box] ^ level.zobristBox[to];
+            return new State(level, newBoxes, newPlayer, h, box, g + 1, this, Level.DIRS[d]);
         }
         
         @Override
@@ -254,40 +942,95 @@ public class SokobanSolver {
             if (this == obj) return true;
             if (!(obj instanceof State)) return false;
             State other = (State) obj;
-            
-            if (grid.length != other.grid.length) return false;
-            for (int i = 0; i < grid.length; i++) {
-                if (!Arrays.equals(grid[i], other.grid[i])) return false;
-            }
-            return true;
+            // La clé 64 bits écarte presque tous les faux candidats avant le bitset
+            return hash == other.hash && player == other.player
+                && Arrays.equals(boxes, other.boxes);
         }
         
         @Override
         public int hashCode() {
-            int hash = 0;
-            for (int i = 0; i < grid.length; i++) {
-                hash = 31 * hash + Arrays.hashCode(grid[i]);
-            }
-            return hash;
+            return (int) (hash ^ (hash >>> 32));
         }
     }
     
     // ========== CLASSE: Moteur de recherche A* ==========
     
+    private static final int MAX_NODES = 500000;
+    private static final long IDA_MAX_NODES = 50_000_000L;   // Pas de mémoire en jeu: budget plus large
+    private static final long DEFAULT_TIME_LIMIT_MS = 10_000;
+    private static final int DEFAULT_BEAM_WIDTH = 1000;
+    private static final int DEFAULT_TABLE_MB = 32;
+    private static final long DEFAULT_PROGRESS_INTERVAL_MS = 1000;
+    
     private char[][] grid;
+    private Level level;
+    private Options options;
     private State startState;
-    private List<int[]> targets;
-    private State goalState;
+    private volatile State goalState;         // Meilleure solution connue (lisible pendant la recherche)
     private int nodesExplored;
+    private int[] threadExpansions;
+    private long tableReplacements;           // -1 sans table bornée
+    private boolean fromCache;
+    private ProgressReporter progress;
+    private SearchLimits limits;
+    private long maxNodes;
     private long startTime, endTime;
     
-    // Initialise et lance la recherche A*
+    // Prépare la recherche A* (successeurs par poussée); solve() la lance
     public SokobanSolver(String[] gridLines) {
+        this(gridLines, Expansion.PUSHES);
+    }
+    
+    // Prépare la recherche A* avec le mode d'expansion donné
+    public SokobanSolver(String[] gridLines, Expansion expansion) {
+        this(gridLines, expansion, Strategy.ASTAR);
+    }
+    
+    // Prépare la recherche avec le mode d'expansion et l'algorithme donnés
+    public SokobanSolver(String[] gridLines, Expansion expansion, Strategy strategy) {
+        this(gridLines, new Options().expansion(expansion).strategy(strategy));
+    }
+    
+    // Idem, avec l'échéance (en ms) de la stratégie ANYTIME
+    public SokobanSolver(String[] gridLines, Expansion expansion, Strategy strategy, long timeLimitMillis) {
+        this(gridLines, new Options().expansion(expansion).strategy(strategy).timeLimitMillis(timeLimitMillis));
+    }
+    
+    // Analyse la grille et prépare la recherche avec les paramètres donnés (sans la lancer)
+    public SokobanSolver(String[] gridLines, Options options) {
+        this.options = options;
         parseGrid(gridLines);
-        extractTargets();
-        startState = new State(grid, 0, 0, null, null);
+        level = new Level(grid, options.expansion, options.goalMacros, options.corralPruning);
+        startState = new State(level);
+    }
+    
+    // Résout le niveau sans autre limite que le plafond de nœuds de la stratégie
+    public SolveResult solve() {
+        return solve(new Budget());
+    }
+    
+    // Résout le niveau dans les limites du budget; le jeton du budget permet
+    // d'annuler depuis un autre thread (arrêt au plus une expansion plus tard)
+    public synchronized SolveResult solve(Budget budget) {
+        goalState = null;
         nodesExplored = 0;
-        search();
+        fromCache = false;
+        search(budget);
+        
+        SolveResult.Status status;
+        if (goalState != null) {
+            status = SolveResult.Status.SOLVED;
+        } else if (limits.reason() != null) {
+            status = limits.reason();
+        } else if (nodesExplored >= maxNodes) {
+            status = SolveResult.Status.NODE_LIMIT;
+        } else if (!isComplete(options.strategy)) {
+            status = SolveResult.Status.INCONCLUSIVE;
+        } else {
+            status = SolveResult.Status.NO_SOLUTION;
+        }
+        return new SolveResult(status, getPushCount(), getSolution(), nodesExplored,
+            getSolveTime(), fromCache, threadExpansions, tableReplacements);
     }
     
     // Parse la grille depuis les chaînes d'entrée
@@ -311,49 +1054,165 @@ public class SokobanSolver {
         }
     }
     
-    // Extrait les positions des cibles (T, *, +)
-    private void extractTargets() {
-        targets = new ArrayList<>();
-        for (int i = 0; i < grid.length; i++) {
-            for (int j = 0; j < grid[i].length; j++) {
-                char c = grid[i][j];
-                if (c == 'T' || c == '*' || c == '+') {
-                    targets.add(new int[]{j, i});
-                }
+    // Lance l'algorithme choisi et affiche le résultat
+    private void search(Budget budget) {
+        startTime = System.currentTimeMillis();
+        limits = new SearchLimits(budget, startTime);
+        maxNodes = budget.maxNodes > 0 ? budget.maxNodes : defaultMaxNodes(options.strategy);
+        progress = options.progress != null
+            ? new ProgressReporter(options.progress, options.progressIntervalMillis, options.level)
+            : ProgressReporter.NONE;
+        
+        tableReplacements = -1;
+        State cached = options.cache != null ? replayCached() : null;
+        if (cached != null) {
+            goalState = cached;
+            fromCache = true;
+            threadExpansions = new int[]{0};
+        } else if (options.strategy == Strategy.ASTAR) {
+            searchAStar();
+            threadExpansions = new int[]{nodesExplored};
+        } else {
+            SearchEngine engine = createEngine();
+            engine.setProgress(progress);
+            engine.setLimits(limits);
+            goalState = engine.search(startState);
+            nodesExplored = engine.getNodesExplored();
+            if (engine instanceof IDAStarSearch) tableReplacements = ((IDAStarSearch) engine).getTableReplacements();
+            threadExpansions = engine instanceof ParallelAStarSearch
+                ? ((ParallelAStarSearch) engine).getThreadExpansions()
+                : new int[]{nodesExplored};
+        }
+        
+        endTime = System.currentTimeMillis();
+        progress.finish(nodesExplored, -1, -1, -1, tableReplacements);
+        
+        // Seules les solutions optimales sont mises en cache
+        if (!fromCache && goalState != null && options.cache != null && isOptimal(options.strategy)) {
+            options.cache.store(grid, goalState.g, nodesExplored, endTime - startTime, solutionPath(goalState));
+        }
+        
+        if (!options.verbose) return;
+        if (goalState != null) {
+            System.out.println(fromCache ? "But trouvé (cache)." : "But trouvé.");
+            printSolution();
+        } else {
+            System.out.println("Aucune solution trouvée.");
+        }
+    }
+    
+    // Rejoue la solution du cache depuis l'état initial; null si absente ou invalide
+    private State replayCached() {
+        SolutionCache.Entry entry = options.cache.lookup(grid);
+        if (entry == null) return null;
+        
+        // Entrée corrompue (ou d'un autre mode d'expansion): écartée, le niveau est résolu normalement
+        State state = replay(entry.moves);
+        if (state == null || !state.isGoal() || state.g != entry.pushes) {
+            options.cache.discard(grid);
+            return null;
+        }
+        return state;
+    }
+    
+    // Rejoue des pas U/D/L/R depuis l'état initial; null si l'un d'eux est impossible
+    private State replay(String moves) {
+        State state = startState;
+        int at = level.initialPlayer;     // Position réelle (non canonique) du joueur
+        for (int i = 0; i < moves.length() && state != null; i++) {
+            int d = Level.direction(moves.charAt(i));
+            if (level.expansion == Expansion.STEPS) {
+                state = state.tryMove(d);
+                continue;
+            }
+            int next = level.neighbor[d][at];
+            if (next < 0) return null;
+            if (state.hasBox(next)) {
+                int behind = level.neighbor[d][next];
+                if (behind < 0 || state.hasBox(behind)) return null;
+                state = state.push(next, d);
             }
+            at = next;
+        }
+        return state;
+    }
+    
+    // Plafond de nœuds par défaut: les moteurs à mémoire bornée (IDA*, faisceau) ou sur
+    // disque ont droit à plus; ceux dont une table grossit avec la recherche (liste ouverte
+    // de A*, tables de HDA*, de la recherche bidirectionnelle et de ARA*) gardent MAX_NODES
+    private static long defaultMaxNodes(Strategy strategy) {
+        switch (strategy) {
+            case ASTAR:
+            case PARALLEL:
+            case BIDIRECTIONAL:
+            case ANYTIME:
+                return MAX_NODES;
+            default:
+                return IDA_MAX_NODES;
+        }
+    }
+    
+    private static boolean isOptimal(Strategy strategy) {
+        return strategy != Strategy.ANYTIME && strategy != Strategy.BEAM;
+    }
+    
+    // Stratégies dont l'échec prouve que le niveau n'a pas de solution
+    private static boolean isComplete(Strategy strategy) {
+        return strategy != Strategy.BEAM;
+    }
+    
+    // Moteur correspondant à la stratégie (hors A* séquentiel)
+    private SearchEngine createEngine() {
+        switch (options.strategy) {
+            case IDASTAR:
+                return new IDAStarSearch(maxNodes, options.tableMegabytes);
+            case PARALLEL:
+                return new ParallelAStarSearch(Runtime.getRuntime().availableProcessors(), maxNodes);
+            case BIDIRECTIONAL:
+                return new BidirectionalSearch(level, maxNodes);
+            case ANYTIME:
+                return new AnytimeSearch(level, startTime + options.timeLimitMillis, maxNodes, (goal, weight) -> {
+                    goalState = goal;
+                    if (options.verbose) {
+                        System.out.println("Solution améliorée: " + goal.g + " poussées (poids " + weight + ")");
+                    }
+                });
+            case BEAM:
+                return new BeamSearch(options.beamWidth, maxNodes);
+            case EXTERNAL:
+                return new ExternalAStarSearch(options.spillDirectory, maxNodes, options.tableMegabytes);
+            default:
+                throw new IllegalStateException("Stratégie sans moteur: " + options.strategy);
         }
     }
     
     // Algorithme A*: Open = états à explorer, Closed = états explorés
-    private void search() {
-        startTime = System.currentTimeMillis();
+    private void searchAStar() {
+        // File à seaux triée par f = g + h, puis par g
+        BucketQueue open = new BucketQueue();
         
-        // File de priorité triée par f = g + h
-        PriorityQueue<State> open = new PriorityQueue<>(64, (a, b) -> {
-            if (a.f != b.f) return Integer.compare(a.f, b.f);
-            return Integer.compare(a.g, b.g);
-        });
+        // Closed + meilleur g connu, en une seule table de taille fixe indexée par
+        // la clé de Zobrist. Une entrée écrasée coûte au pire une réexpansion.
+        TranspositionTable table = TranspositionTable.withMegabytes(options.tableMegabytes);
         
-        Set<State> closed = new HashSet<>();
-        Set<State> inOpen = new HashSet<>();
-        Map<State, Integer> bestG = new HashMap<>();
-        
-        int h0 = startState.heuristic(targets);
+        int h0 = startState.heuristic();
         startState.f = h0;
-        open.add(startState);
-        inOpen.add(startState);
-        bestG.put(startState, 0);
-        
-        final int MAX_NODES = 500000;
+        if (h0 != Integer.MAX_VALUE) open.add(startState);
+        table.store(table.find(startState.hash), startState.hash, 0, false);
         
-        while (!open.isEmpty() && nodesExplored < MAX_NODES) {
+        // Budget (jeton, échéance, tas) vérifié à chaque tour, à coût quasi nul
+        while (!open.isEmpty() && nodesExplored < maxNodes && !limits.exceeded(nodesExplored)) {
             State current = open.poll();
             
-            if (closed.contains(current)) continue;
+            // Entrée périmée: état déjà fermé ou retrouvé depuis avec un meilleur g
+            int slot = table.find(current.hash);
+            if (slot >= 0 && (table.isClosed(slot) || table.g(slot) < current.g)) continue;
             
-            inOpen.remove(current);
-            closed.add(current);
+            table.store(slot, current.hash, current.g, true);
             nodesExplored++;
+            if (progress.due(nodesExplored)) {
+                progress.report(nodesExplored, current.f, open.size(), table.size(), table.replacements());
+            }
             
             if (current.isGoal()) {
                 goalState = current;
@@ -362,46 +1221,25 @@ public class SokobanSolver {
             
             // Générer successeurs et ajouter à Open
             for (State neighbor : current.getPossibleMoves()) {
-                if (closed.contains(neighbor)) continue;
-                
                 int tentativeG = neighbor.g;
-                Integer prevG = bestG.get(neighbor);
+                int prev = table.find(neighbor.hash);
+                if (prev >= 0 && (table.isClosed(prev) || table.g(prev) <= tentativeG)) continue;
                 
-                if (prevG == null || tentativeG < prevG) {
-                    bestG.put(neighbor, tentativeG);
-                    int h = neighbor.heuristic(targets);
-                    
-                    if (h == Integer.MAX_VALUE) continue;
-                    
-                    neighbor.f = tentativeG + h;
-                    
-                    if (!inOpen.contains(neighbor)) {
-                        open.add(neighbor);
-                        inOpen.add(neighbor);
-                    }
-                }
+                table.store(prev, neighbor.hash, tentativeG, false);
+                int h = neighbor.heuristic();
+                
+                if (h == Integer.MAX_VALUE) continue;
+                
+                neighbor.f = tentativeG + h;
+                open.add(neighbor);
             }
         }
-        
-        endTime = System.currentTimeMillis();
-        
-        if (goalState != null) {
-            System.out.println("But trouvé.");
-            printSolution();
-        } else {
-            System.out.println("Aucune solution trouvée.");
-        }
+        tableReplacements = table.replacements();
     }
     
     // Affiche la solution trouvée
     private void printSolution() {
-        List<String> path = new ArrayList<>();
-        State current = goalState;
-        
-        while (current != null && current.move != null) {
-            path.add(0, current.move);
-            current = current.parent;
-        }
+        List<String> path = solutionPath(goalState);
         
         System.out.println("Nombre de poussées: " + goalState.g);
         System.out.print("Chemin optimal: [");
@@ -414,7 +1252,42 @@ public class SokobanSolver {
         System.out.println("Nœuds explorés: " + nodesExplored);
         
         System.out.println("\nGrille finale:");
-        printGrid(goalState.grid);
+        printGrid(goalState.toGrid());
+    }
+    
+    // Suite des pas du joueur jusqu'au but (marche reconstruite en mode poussées)
+    private List<String> solutionPath(State goal) {
+        LinkedList<State> chain = new LinkedList<>();
+        for (State s = goal; s != null && s.move != null; s = s.parent) {
+            chain.addFirst(s);
+        }
+        
+        List<String> path = new ArrayList<>();
+        int at = level.initialPlayer;     // Position réelle (non canonique) du joueur
+        for (State s : chain) {
+            if (level.expansion == Expansion.STEPS) {
+                path.add(s.move);
+                continue;
+            }
+            // Une lettre par poussée de la même caisse (plusieurs pour une macro)
+            State config = s.parent;
+            int box = s.pushFrom;
+            for (int i = 0; i < s.move.length(); i++) {
+                int d = Level.direction(s.move.charAt(i));
+                path.addAll(config.walk(at, level.neighbor[d ^ 1][box]));
+                path.add(Level.DIRS[d]);
+                at = box;
+                config = config.push(box, d);
+                box = level.neighbor[d][box];
+            }
+        }
+        return path;
+    }
+    
+    // Suite des pas du joueur (U/D/L/R) jusqu'au but, vide sans solution
+    public List<String> getSolution() {
+        State goal = goalState;
+        return goal != null ? solutionPath(goal) : Collections.emptyList();
     }
     
     public void printGrid(char[][] gridToPrint) {
@@ -423,6 +1296,15 @@ public class SokobanSolver {
         }
     }
     
+    // Vrai si la solution vient du cache (aucune recherche effectuée)
+    public boolean isFromCache() {
+        return fromCache;
+    }
+    
+    public boolean isSolved() {
+        return goalState != null;
+    }
+    
     public int getPushCount() {
         return goalState != null ? goalState.g : 0;
     }
@@ -434,4 +1316,9 @@ public class SokobanSolver {
     public int getNodesExplored() {
         return nodesExplored;
     }
+    
+    // Expansions par thread (une seule entrée pour les moteurs séquentiels)
+    public int[] getThreadExpansions() {
+        return threadExpansions.clone();
+    }
 }
@@ -0,0 +1,268 @@
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Vérifications de non-régression du solveur
+ *
+ * Le projet n'a pas de build ni de framework de test: chaque vérification
+ * est une méthode lancée par main(), qui affiche OK ou ÉCHEC et termine avec
+ * le code 1 si l'une d'elles échoue.
+ *
+ * Usage: java SokobanTests [filtre] (sous-chaîne du nom des vérifications)
+ */
+public class SokobanTests {
+    
+    private static final String MICROBAN = String.join("\n",
+        "; Microban 1",
+        "####", "# .#", "#  ###", "#*@  #", "#  $ #", "#  ###", "####", "",
+        "; Microban 2",
+        "######", "#    #", "# #@ #", "# $* #", "# .* #", "#    #", "######", "",
+        "; Microban 3",
+        "  ####", "###  ####", "#     $ #", "# #  #$ #", "# . .#@ #", "#########", "",
+        "; Microban 4",
+        "########", "#      #", "# .**$@#", "#      #", "#####  #", "    ####");
+    private static final int[] MICROBAN_PUSHES = {8, 3, 13, 7};
+    
+    // Plus de cibles que de caisses: un corral contenant une cible libre ne
+    // demande pas de caisse (régression de l'élagage par corral PI)
+    private static final String FREE_TARGETS = String.join("\n",
+        "; Cible libre 1",
+        "#######", "#.    #", "# #$ .#", "#.# $ #", "####  #", "## @  #", "#######", "",
+        "; Cible libre 2",
+        "#####", "#.# #", "#.###", "#$###", "#@$.#", "#####");
+    private static final int[] FREE_TARGETS_PUSHES = {5, 2};
+    
+    private interface Check {
+        void run() throws Exception;
+    }
+    
+    private static int failures;
+    
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        Map<String, Check> checks = new LinkedHashMap<>();
+        checks.put("external.concurrentSpillDirectory", SokobanTests::externalConcurrentSpillDirectory);
+        checks.put("cache.unterminatedLine", SokobanTests::cacheUnterminatedLine);
+        checks.put("cache.invalidEntry", SokobanTests::cacheInvalidEntry);
+        checks.put("anytime.stepsAgainstAStar", SokobanTests::anytimeStepsAgainstAStar);
+        checks.put("xsb.trailingMetadata", SokobanTests::xsbTrailingMetadata);
+        checks.put("batch.progressLevel", SokobanTests::batchProgressLevel);
+        checks.put("corral.sameResultWithoutPruning", SokobanTests::corralSameResultWithoutPruning);
+        
+        int run = 0;
+        for (Map.Entry<String, Check> check : checks.entrySet()) {
+            if (!check.getKey().contains(filter)) continue;
+            run++;
+            try {
+                check.getValue().run();
+                System.out.println("OK     " + check.getKey());
+            } catch (Exception | AssertionError e) {
+                failures++;
+                System.out.println("ÉCHEC  " + check.getKey() + ": " + e);
+            }
+        }
+        System.out.println(run + " vérifications, " + failures + " échec(s)");
+        if (failures > 0) System.exit(1);
+    }
+    
+    // ========== Vérifications ==========
+    
+    // Plusieurs recherches EXTERNAL simultanées dans le même répertoire de débordement
+    private static void externalConcurrentSpillDirectory() throws Exception {
+        Path spill = Files.createTempDirectory("sokoban-tests");
+        try {
+            // Table de 1 Mo: les seaux débordent sur disque
+            SokobanSolver.Options options = new SokobanSolver.Options()
+                .strategy(SokobanSolver.Strategy.EXTERNAL).spillDirectory(spill).tableMegabytes(1);
+            List<String[]> levels = new ArrayList<>();
+            for (int round = 0; round < 2; round++) levels.addAll(grids(MICROBAN));
+            
+            List<BatchSolver.Result> results = new BatchSolver(options, levels.size(), 60_000).solveAll(levels);
+            for (BatchSolver.Result result : results) {
+                int expected = MICROBAN_PUSHES[result.getIndex() % MICROBAN_PUSHES.length];
+                check(result.getError() == null, "niveau " + result.getIndex() + ": " + result.getError());
+                check(result.getPushCount() == expected,
+                    "niveau " + result.getIndex() + ": " + result.getPushCount() + " poussées au lieu de " + expected);
+            }
+            try (Stream<Path> left = Files.list(spill)) {
+                check(left.count() == 0, "fichiers restants dans " + spill);
+            }
+        } finally {
+            Files.deleteIfExists(spill);
+        }
+    }
+    
+    // Ligne tronquée par un arrêt brutal: retirée à l'ouverture, les ajouts suivants restent lisibles
+    private static void cacheUnterminatedLine() throws Exception {
+        Path file = Files.createTempFile("sokoban-cache", ".tsv");
+        try {
+            List<String[]> levels = grids(MICROBAN);
+            try (SolutionCache cache = new SolutionCache(file)) {
+                solveWithCache(levels.get(0), cache);
+            }
+            // Préfixe valide d'une ligne complète, sans fin de ligne
+            String line = Files.readAllLines(file).get(0);
+            Files.write(file, line.substring(0, line.length() - 2).getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+            
+            try (SolutionCache cache = new SolutionCache(file)) {
+                check(cache.size() == 1, "entrées après ouverture: " + cache.size());
+                solveWithCache(levels.get(1), cache);
+            }
+            try (SolutionCache cache = new SolutionCache(file)) {
+                check(cache.size() == 2, "entrées après réouverture: " + cache.size());
+                check(solveWithCache(levels.get(1), cache).isFromCache(), "niveau 2 absent du cache");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    // Entrées dont les pas ne mènent pas au but, ou pas avec le nombre de poussées annoncé:
+    // écartées, le niveau est résolu puis réenregistré
+    private static void cacheInvalidEntry() throws Exception {
+        Path file = Files.createTempFile("sokoban-cache", ".tsv");
+        try {
+            String[] level = grids(MICROBAN).get(0);
+            try (SolutionCache cache = new SolutionCache(file)) {
+                solveWithCache(level, cache);
+            }
+            String valid = Files.readAllLines(file).get(0);
+            for (int corrupted = 0; corrupted < 2; corrupted++) {
+                String[] fields = valid.split("\t");
+                if (corrupted == 0) {
+                    fields[4] = fields[4].substring(0, fields[4].length() / 2);
+                } else {
+                    fields[1] = String.valueOf(MICROBAN_PUSHES[0] - 1);
+                }
+                Files.write(file, (String.join("\t", fields) + "\n").getBytes(StandardCharsets.UTF_8));
+                
+                try (SolutionCache cache = new SolutionCache(file)) {
+                    SolveResult first = solveWithCache(level, cache);
+                    check(!first.isFromCache(), "entrée invalide rejouée (" + corrupted + ")");
+                    check(first.getPushCount() == MICROBAN_PUSHES[0], "poussées: " + first.getPushCount());
+                    SolveResult second = solveWithCache(level, cache);
+                    check(second.isFromCache() && second.getPushCount() == MICROBAN_PUSHES[0], "entrée non remplacée");
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    // ARA* en mode pas: refusé plutôt qu'une solution plus longue que celle d'A*;
+    // en mode poussées la dernière solution égale celle d'A*
+    private static void anytimeStepsAgainstAStar() {
+        SokobanSolver.Options steps = new SokobanSolver.Options()
+            .expansion(SokobanSolver.Expansion.STEPS).verbose(false);
+        SolveResult astar = new SokobanSolver(SokobanAStarSearch.grid1, steps.copy()).solve();
+        check(astar.isSolved() && astar.getPushCount() == 15, "A* en mode pas: " + astar.getPushCount());
+        try {
+            new SokobanSolver(SokobanAStarSearch.grid1,
+                steps.copy().strategy(SokobanSolver.Strategy.ANYTIME).timeLimitMillis(10_000)).solve();
+            throw new AssertionError("ARA* accepté en mode pas");
+        } catch (IllegalArgumentException expected) {
+            // Mode pas refusé
+        }
+        
+        for (int i = 0; i < MICROBAN_PUSHES.length; i++) {
+            String[] level = grids(MICROBAN).get(i);
+            SolveResult anytime = new SokobanSolver(level, new SokobanSolver.Options()
+                .strategy(SokobanSolver.Strategy.ANYTIME).timeLimitMillis(10_000).verbose(false)).solve();
+            check(anytime.getPushCount() == MICROBAN_PUSHES[i],
+                "Microban " + (i + 1) + ": " + anytime.getPushCount() + " poussées au lieu de " + MICROBAN_PUSHES[i]);
+        }
+    }
+    
+    // Métadonnées après un plateau: Title: le nomme, les autres ne nomment pas le suivant
+    private static void xsbTrailingMetadata() {
+        String xsb = String.join("\n",
+            "; Premier",
+            "#####", "#@$.#", "#####",
+            "Author: Quelqu'un",
+            "Comment:", "Une ligne de description", "Comment-End",
+            "",
+            "#####", "#@$.#", "#####",
+            "Title: Deuxième",
+            "Date: 2024-01-01",
+            "",
+            "#####", "#@$.#", "#####",
+            "",
+            "; Quatrième",
+            "#####", "#@$.#", "#####",
+            "Author: Quelqu'un");
+        List<XsbReader.Puzzle> puzzles = XsbReader.parse(xsb);
+        String[] expected = {"Premier", "Deuxième", "", "Quatrième"};
+        check(puzzles.size() == expected.length, puzzles.size() + " niveaux");
+        for (int i = 0; i < expected.length; i++) {
+            check(puzzles.get(i).getTitle().equals(expected[i]),
+                "niveau " + (i + 1) + ": titre \"" + puzzles.get(i).getTitle() + "\"");
+        }
+    }
+    
+    // Un écouteur partagé par le lot distingue les niveaux: un dernier événement par rang
+    private static void batchProgressLevel() {
+        List<SearchProgress> finished = Collections.synchronizedList(new ArrayList<>());
+        SokobanSolver.ProgressListener listener = new SokobanSolver.ProgressListener() {
+            @Override
+            public void onProgress(SearchProgress progress) {
+                check(progress.getLevel() >= 0, "événement sans niveau");
+            }
+            
+            @Override
+            public void onFinished(SearchProgress last) {
+                finished.add(last);
+            }
+        };
+        SokobanSolver.Options options = new SokobanSolver.Options().progress(listener, 1);
+        List<BatchSolver.Result> results = new BatchSolver(options, 2, 60_000).solveAll(grids(MICROBAN));
+        
+        check(finished.size() == results.size(), finished.size() + " événements finaux");
+        for (BatchSolver.Result result : results) {
+            SearchProgress last = finished.stream()
+                .filter(p -> p.getLevel() == result.getIndex()).findFirst().orElse(null);
+            check(last != null, "niveau " + result.getIndex() + " sans événement");
+            check(last.getNodesExplored() == result.getNodesExplored(),
+                "niveau " + result.getIndex() + ": " + last.getNodesExplored() + " nœuds annoncés");
+        }
+    }
+    
+    // Élagage par corral PI: même nombre de poussées qu'une recherche sans élagage,
+    // sur les niveaux à cibles libres et sur Microban
+    private static void corralSameResultWithoutPruning() {
+        List<String[]> levels = grids(FREE_TARGETS);
+        levels.addAll(grids(MICROBAN));
+        for (int i = 0; i < levels.size(); i++) {
+            SolveResult pruned = new SokobanSolver(levels.get(i), new SokobanSolver.Options().verbose(false)).solve();
+            SolveResult full = new SokobanSolver(levels.get(i),
+                new SokobanSolver.Options().corralPruning(false).verbose(false)).solve();
+            check(full.isSolved(), "niveau " + i + " sans élagage: " + full.getStatus());
+            check(pruned.isSolved() && pruned.getPushCount() == full.getPushCount(),
+                "niveau " + i + ": avec élagage " + pruned.getPushCount() + " poussées (" + pruned.getStatus()
+                    + "), sans élagage " + full.getPushCount());
+            if (i < FREE_TARGETS_PUSHES.length) {
+                check(full.getPushCount() == FREE_TARGETS_PUSHES[i], "cible libre " + (i + 1) + ": " + full.getPushCount());
+            }
+        }
+    }
+    
+    // ========== Outils ==========
+    
+    private static SolveResult solveWithCache(String[] level, SolutionCache cache) {
+        return new SokobanSolver(level, new SokobanSolver.Options().cache(cache).verbose(false)).solve();
+    }
+    
+    private static List<String[]> grids(String xsb) {
+        List<String[]> grids = new ArrayList<>();
+        for (XsbReader.Puzzle puzzle : XsbReader.parse(xsb)) grids.add(puzzle.getRows());
+        return grids;
+    }
+    
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
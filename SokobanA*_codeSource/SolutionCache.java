@@ -0,0 +1,224 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Cache persistant des solutions, indexé par la forme canonique du niveau
+ *
+ * La grille est d'abord débarrassée des lignes et colonnes de bord vides
+ * (□), puis ramenée à la plus petite (ordre lexicographique) de ses 8
+ * images par rotation et symétrie. Deux niveaux identiques à une isométrie
+ * près partagent donc la même entrée; les pas sont stockés dans le repère
+ * canonique et retransformés à la lecture.
+ *
+ * Stockage: un fichier texte en ajout seul (une ligne par solution: clé,
+ * poussées, nœuds, durée, pas) relu entièrement à l'ouverture dans un
+ * index en mémoire. La dernière ligne d'une clé l'emporte. Une dernière
+ * ligne sans fin de ligne (écriture interrompue par un arrêt brutal) est
+ * retirée du fichier à l'ouverture, pour que les ajouts suivants partent
+ * d'une ligne neuve. Le fichier ne contenant pas les grilles, une entrée ne
+ * peut être vérifiée qu'à sa première consultation: le solveur rejoue les
+ * pas et écarte (discard) celle qui ne mène pas au but avec le nombre de
+ * poussées annoncé. Sûr entre threads.
+ */
+public final class SolutionCache implements AutoCloseable {
+    
+    private static final String DIRS = "UDLR";
+    
+    private final Map<Long, Entry> index = new HashMap<>();
+    private final BufferedWriter writer;
+    
+    /**
+     * Solution enregistrée: pas du joueur (U/D/L/R) et statistiques de la résolution d'origine
+     */
+    public static final class Entry {
+        public final int pushes;
+        public final int nodes;
+        public final long millis;
+        public final String moves;
+        
+        Entry(int pushes, int nodes, long millis, String moves) {
+            this.pushes = pushes;
+            this.nodes = nodes;
+            this.millis = millis;
+            this.moves = moves;
+        }
+    }
+    
+    public SolutionCache(Path file) throws IOException {
+        if (Files.exists(file)) {
+            dropUnterminatedLine(file);
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 5 || !fields[4].chars().allMatch(c -> DIRS.indexOf(c) >= 0)) continue;
+                try {
+                    index.put(Long.parseUnsignedLong(fields[0], 16), new Entry(Integer.parseInt(fields[1]),
+                        Integer.parseInt(fields[2]), Long.parseLong(fields[3]), fields[4]));
+                } catch (NumberFormatException e) {
+                    // Ligne incomplète: ignorée
+                }
+            }
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+    
+    // Solution connue pour la grille (pas exprimés dans son repère), null sinon
+    public synchronized Entry lookup(char[][] grid) {
+        Canonical canonical = new Canonical(grid);
+        Entry entry = index.get(canonical.key);
+        if (entry == null) return null;
+        return new Entry(entry.pushes, entry.nodes, entry.millis, canonical.fromCanonical(entry.moves));
+    }
+    
+    // Enregistre une solution (pas U/D/L/R dans le repère de la grille)
+    public synchronized void store(char[][] grid, int pushes, int nodes, long millis, List<String> moves) {
+        Canonical canonical = new Canonical(grid);
+        Entry entry = new Entry(pushes, nodes, millis, canonical.toCanonical(String.join("", moves)));
+        try {
+            writer.write(Long.toHexString(canonical.key) + '\t' + pushes + '\t' + nodes + '\t' + millis
+                + '\t' + entry.moves);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        index.put(canonical.key, entry);
+    }
+    
+    // Retire l'entrée de la grille (solution invalide); une prochaine store() la remplacera
+    public synchronized void discard(char[][] grid) {
+        index.remove(new Canonical(grid).key);
+    }
+    
+    public synchronized int size() {
+        return index.size();
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+    
+    // Tronque le fichier après son dernier saut de ligne
+    private static void dropUnterminatedLine(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            ByteBuffer one = ByteBuffer.allocate(1);
+            while (end > 0) {
+                one.clear();
+                channel.read(one, end - 1);
+                if (one.get(0) == '\n') break;
+                end--;
+            }
+            if (end < channel.size()) channel.truncate(end);
+        }
+    }
+    
+    // ========== Forme canonique d'une grille ==========
+    
+    // Isométrie t (0..7): bit 0 = miroir horizontal, bit 1 = miroir vertical,
+    // bit 2 = transposition appliquée après les miroirs
+    private static final class Canonical {
+        final long key;
+        final int transform;
+        
+        Canonical(char[][] grid) {
+            char[][] trimmed = trim(grid);
+            String best = null;
+            int bestTransform = 0;
+            for (int t = 0; t < 8; t++) {
+                String image = render(trimmed, t);
+                if (best == null || image.compareTo(best) < 0) {
+                    best = image;
+                    bestTransform = t;
+                }
+            }
+            transform = bestTransform;
+            key = fnv(best);
+        }
+        
+        String toCanonical(String moves) {
+            return map(moves, false);
+        }
+        
+        String fromCanonical(String moves) {
+            return map(moves, true);
+        }
+        
+        private String map(String moves, boolean inverse) {
+            StringBuilder out = new StringBuilder(moves.length());
+            for (int i = 0; i < moves.length(); i++) {
+                int d = DIRS.indexOf(moves.charAt(i));
+                int dx = SokobanSolver.Level.DX[d], dy = SokobanSolver.Level.DY[d];
+                // L'inverse défait la transposition avant les miroirs (qui sont leurs propres inverses)
+                if (inverse && (transform & 4) != 0) {
+                    int t = dx; dx = dy; dy = t;
+                }
+                if ((transform & 1) != 0) dx = -dx;
+                if ((transform & 2) != 0) dy = -dy;
+                if (!inverse && (transform & 4) != 0) {
+                    int t = dx; dx = dy; dy = t;
+                }
+                out.append(dx < 0 ? 'L' : dx > 0 ? 'R' : dy < 0 ? 'U' : 'D');
+            }
+            return out.toString();
+        }
+        
+        // Retire les lignes et colonnes de bord qui ne contiennent que du sol vide
+        private static char[][] trim(char[][] grid) {
+            int top = grid.length, bottom = -1, left = Integer.MAX_VALUE, right = -1;
+            for (int y = 0; y < grid.length; y++) {
+                for (int x = 0; x < grid[y].length; x++) {
+                    if (grid[y][x] == '□') continue;
+                    top = Math.min(top, y);
+                    bottom = Math.max(bottom, y);
+                    left = Math.min(left, x);
+                    right = Math.max(right, x);
+                }
+            }
+            if (bottom < 0) return new char[0][0];
+            char[][] out = new char[bottom - top + 1][right - left + 1];
+            for (int y = top; y <= bottom; y++) {
+                for (int x = left; x <= right; x++) {
+                    out[y - top][x - left] = x < grid[y].length ? grid[y][x] : '□';
+                }
+            }
+            return out;
+        }
+        
+        private static String render(char[][] grid, int t) {
+            int h = grid.length, w = h == 0 ? 0 : grid[0].length;
+            boolean transpose = (t & 4) != 0;
+            int outH = transpose ? w : h, outW = transpose ? h : w;
+            StringBuilder out = new StringBuilder(outH * (outW + 1));
+            for (int y = 0; y < outH; y++) {
+                for (int x = 0; x < outW; x++) {
+                    int sx = transpose ? y : x, sy = transpose ? x : y;
+                    if ((t & 1) != 0) sx = w - 1 - sx;
+                    if ((t & 2) != 0) sy = h - 1 - sy;
+                    out.append(grid[sy][sx]);
+                }
+                out.append('\n');
+            }
+            return out.toString();
+        }
+        
+        // FNV-1a 64 bits
+        private static long fnv(String text) {
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < text.length(); i++) {
+                hash ^= text.charAt(i);
+                hash *= 0x100000001B3L;
+            }
+            return hash;
+        }
+    }
+}
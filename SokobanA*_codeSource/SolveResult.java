@@ -0,0 +1,80 @@
+import java.util.*;
+
+/**
+ * Résultat immuable d'une résolution (voir SokobanSolver.solve)
+ */
+public final class SolveResult {
+    
+    /**
+     * Issue de la résolution
+     */
+    public enum Status {
+        SOLVED,         // Solution trouvée
+        NO_SOLUTION,    // Espace épuisé: le niveau n'a pas de solution
+        INCONCLUSIVE,   // Recherche incomplète (faisceau) terminée sans solution: rien n'est prouvé
+        NODE_LIMIT,     // Plafond de nœuds atteint
+        TIME_LIMIT,     // Durée maximale atteinte
+        MEMORY_LIMIT,   // Tas maximal dépassé
+        CANCELLED       // Jeton annulé ou thread interrompu
+    }
+    
+    private final Status status;
+    private final int pushCount;
+    private final List<String> solution;
+    private final int nodesExplored;
+    private final long solveTimeMillis;
+    private final boolean fromCache;
+    private final int[] threadExpansions;
+    private final long tableReplacements;
+    
+    SolveResult(Status status, int pushCount, List<String> solution, int nodesExplored,
+                long solveTimeMillis, boolean fromCache, int[] threadExpansions, long tableReplacements) {
+        this.status = status;
+        this.pushCount = pushCount;
+        this.solution = Collections.unmodifiableList(new ArrayList<>(solution));
+        this.nodesExplored = nodesExplored;
+        this.solveTimeMillis = solveTimeMillis;
+        this.fromCache = fromCache;
+        this.threadExpansions = threadExpansions.clone();
+        this.tableReplacements = tableReplacements;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+    
+    public int getPushCount() {
+        return pushCount;
+    }
+    
+    // Suite des pas du joueur (U/D/L/R), vide sans solution
+    public List<String> getSolution() {
+        return solution;
+    }
+    
+    public int getNodesExplored() {
+        return nodesExplored;
+    }
+    
+    public long getSolveTime() {
+        return solveTimeMillis;
+    }
+    
+    public boolean isFromCache() {
+        return fromCache;
+    }
+    
+    // Entrées écrasées dans la table bornée (A*, IDA*), -1 pour les autres moteurs
+    public long getTableReplacements() {
+        return tableReplacements;
+    }
+    
+    // Expansions par thread (une seule entrée pour les moteurs séquentiels)
+    public int[] getThreadExpansions() {
+        return threadExpansions.clone();
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Table de transposition à adressage ouvert (sondage linéaire) indexée par
+ * la clé de Zobrist 64 bits d'un état.
+ *
+ * Chaque entrée tient dans un long (clé), un int (g << 1 | fermé) et un int
+ * (génération): pas d'objet State retenu, pas de boxing. Les collisions de
+ * clés 64 bits sont tenues pour négligeables.
+ *
+ * La table double quand elle est à moitié pleine. Une table bornée (plafond
+ * donné en Mo) démarre petite comme les autres et cesse de grandir au
+ * plafond: elle n'examine alors que PROBE_LIMIT cases et, si aucune n'est
+ * libre, find() désigne l'entrée la moins utile, qui sera écrasée:
+ * génération la plus ancienne, puis entrée ouverte plutôt que fermée, puis
+ * g le plus grand (le moins de recherche en dessous). Un petit niveau ne
+ * paie donc pas l'allocation du plafond entier.
+ */
+final class TranspositionTable {
+    
+    private static final long EMPTY = 0L;
+    private static final long ZERO_KEY = 0x9E3779B97F4A7C15L;  // Remplace la clé 0, réservée
+    private static final int ENTRY_BYTES = 16;                 // Clé + valeur + génération
+    private static final int PROBE_LIMIT = 8;                  // Cases examinées avant remplacement
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    
+    private final int maxCapacity;                              // Plafond (Integer.MAX_VALUE si extensible)
+    private boolean bounded;                                    // Plafond atteint: remplacement au lieu de croissance
+    private long[] keys;
+    private int[] values;
+    private int[] generations;
+    private int mask;
+    private int size;
+    private int generation;
+    private long replacements;
+    
+    TranspositionTable(int expectedSize) {
+        this(Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1, Integer.MAX_VALUE);
+    }
+    
+    private TranspositionTable(int capacity, int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+        allocate(Math.min(capacity, maxCapacity));
+        bounded = keys.length == maxCapacity;
+    }
+    
+    // Table occupant au plus environ `megabytes` Mo, allouée au fil des besoins
+    static TranspositionTable withMegabytes(int megabytes) {
+        if (megabytes < 1) throw new IllegalArgumentException("Taille de table invalide: " + megabytes + " Mo");
+        long entries = Math.min(((long) megabytes << 20) / ENTRY_BYTES, 1 << 30);
+        return new TranspositionTable(INITIAL_CAPACITY, Integer.highestOneBit((int) entries));
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        generations = new int[capacity];
+        mask = capacity - 1;
+    }
+    
+    // Indice de l'entrée de la clé si présente, sinon ~indice de la case à écrire
+    // (case libre, ou entrée à remplacer si la table est bornée)
+    int find(long key) {
+        key = normalize(key);
+        int slot = spread(key) & mask;
+        int victim = slot;
+        for (int probe = 0; !bounded || probe < PROBE_LIMIT; probe++) {
+            long k = keys[slot];
+            if (k == key) return slot;
+            if (k == EMPTY) return ~slot;
+            if (bounded && lessValuable(slot, victim)) victim = slot;
+            slot = (slot + 1) & mask;
+        }
+        return ~victim;
+    }
+    
+    int g(int slot) {
+        return values[slot] >>> 1;
+    }
+    
+    boolean isClosed(int slot) {
+        return (values[slot] & 1) != 0;
+    }
+    
+    // Vrai si l'entrée a été écrite depuis le dernier nextGeneration()
+    boolean isCurrent(int slot) {
+        return generations[slot] == generation;
+    }
+    
+    void close(int slot) {
+        values[slot] |= 1;
+    }
+    
+    // Écrit l'entrée à l'indice renvoyé par find() (invalide les autres indices)
+    void store(int slot, long key, int g, boolean closed) {
+        int value = (g << 1) | (closed ? 1 : 0);
+        if (slot >= 0) {
+            values[slot] = value;
+            generations[slot] = generation;
+            return;
+        }
+        slot = ~slot;
+        if (keys[slot] == EMPTY) {
+            size++;
+        } else {
+            replacements++;
+        }
+        keys[slot] = normalize(key);
+        values[slot] = value;
+        generations[slot] = generation;
+        if (!bounded && size * 2 > keys.length) resize();
+    }
+    
+    // Nouvelle génération: les entrées existantes deviennent prioritaires au remplacement
+    void nextGeneration() {
+        generation++;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    // Entrées écrasées faute de place (table bornée)
+    long replacements() {
+        return replacements;
+    }
+    
+    // Vrai si l'entrée a mérite moins d'être gardée que l'entrée b
+    private boolean lessValuable(int a, int b) {
+        if (generations[a] != generations[b]) return generations[a] - generations[b] < 0;
+        if (isClosed(a) != isClosed(b)) return !isClosed(a);
+        return g(a) > g(b);
+    }
+    
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldGenerations = generations;
+        allocate(oldKeys.length << 1);
+        bounded = keys.length == maxCapacity;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k == EMPTY) continue;
+            int slot = spread(k) & mask;
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = k;
+            values[slot] = oldValues[i];
+            generations[slot] = oldGenerations[i];
+        }
+    }
+    
+    private static long normalize(long key) {
+        return key == EMPTY ? ZERO_KEY : key;
+    }
+    
+    private static int spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,232 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Lecture d'un recueil de niveaux au format XSB, niveau par niveau
+ *
+ * Le fichier est projeté en mémoire (FileChannel.map) et parcouru à la
+ * demande: chaque appel à next() ne lit que les lignes du niveau suivant,
+ * ce qui permet de commencer à résoudre avant la fin de la lecture.
+ *
+ * Une ligne de plateau ne contient que les glyphes XSB (# $ . @ + * et
+ * espace, - ou _ pour le sol) dont au moins un mur. Les autres lignes sont
+ * des commentaires ou des métadonnées: le titre d'un niveau est la ligne
+ * "Title:" qui le suit, sinon le dernier commentaire qui le précède. Les
+ * autres métadonnées "Clé: valeur" (Author:, Comment:...) et les blocs
+ * Comment: ... Comment-End sont ignorés: placés après un plateau, ils ne
+ * deviennent pas le titre du suivant. Les glyphes sont convertis dans ceux
+ * du solveur (■ mur, □ sol, T cible).
+ */
+public final class XsbReader implements Iterable<XsbReader.Puzzle>, AutoCloseable {
+    
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    
+    /**
+     * Niveau lu: titre (éventuellement vide) et lignes au format du solveur
+     */
+    public static final class Puzzle {
+        private final String title;
+        private final String[] rows;
+        
+        Puzzle(String title, String[] rows) {
+            this.title = title;
+            this.rows = rows;
+        }
+        
+        public String getTitle() {
+            return title;
+        }
+        
+        public String[] getRows() {
+            return rows.clone();
+        }
+    }
+    
+    public XsbReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Recueil trop volumineux pour une projection unique: " + file);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+    
+    // Niveaux d'un texte XSB déjà en mémoire (recueil embarqué, tests...)
+    public static List<Puzzle> parse(String text) {
+        List<Puzzle> puzzles = new ArrayList<>();
+        new PuzzleIterator(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))).forEachRemaining(puzzles::add);
+        return puzzles;
+    }
+    
+    // Parcours paresseux des niveaux, depuis le début du fichier
+    @Override
+    public Iterator<Puzzle> iterator() {
+        return new PuzzleIterator(buffer.duplicate());
+    }
+    
+    // Les seules grilles, prêtes pour SokobanSolver ou BatchSolver
+    public Iterable<String[]> grids() {
+        return () -> {
+            Iterator<Puzzle> puzzles = iterator();
+            return new Iterator<String[]>() {
+                @Override
+                public boolean hasNext() {
+                    return puzzles.hasNext();
+                }
+                
+                @Override
+                public String[] next() {
+                    return puzzles.next().rows;
+                }
+            };
+        };
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    // Glyphe XSB → glyphe du solveur (0 si le caractère n'appartient pas à un plateau)
+    private static char convert(int c) {
+        switch (c) {
+            case '#': return '■';
+            case ' ': case '-': case '_': return '□';
+            case '.': return 'T';
+            case '$': case '@': case '+': case '*': return (char) c;
+            default: return 0;
+        }
+    }
+    
+    // ========== Découpage du fichier en niveaux ==========
+    
+    private static final class PuzzleIterator implements Iterator<Puzzle> {
+        // "Clé: valeur" en tête de ligne (Author:, Date:, Comment:...)
+        private static final Pattern METADATA = Pattern.compile("[A-Za-z][\\w-]*:");
+        
+        private final ByteBuffer source;
+        private Puzzle next;
+        private String comment = "";             // Dernier commentaire vu depuis le plateau précédent
+        private String pending;                  // Ligne de plateau lue d'avance
+        private boolean commentBlock;            // Dans un bloc Comment: ... Comment-End
+        
+        PuzzleIterator(ByteBuffer source) {
+            this.source = source;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (next == null) next = readPuzzle();
+            return next != null;
+        }
+        
+        @Override
+        public Puzzle next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Puzzle puzzle = next;
+            next = null;
+            return puzzle;
+        }
+        
+        private Puzzle readPuzzle() {
+            // Avance jusqu'à la première ligne de plateau
+            String line = pending;
+            pending = null;
+            while (line == null || !isBoard(line)) {
+                if (line != null) remember(line);
+                line = readLine();
+                if (line == null) return null;
+            }
+            
+            List<String> rows = new ArrayList<>();
+            while (line != null && isBoard(line)) {
+                rows.add(toSolverGlyphs(line));
+                line = readLine();
+            }
+            
+            // Métadonnées qui suivent le plateau, jusqu'au niveau suivant: seul
+            // Title: s'applique à ce plateau, les commentaires au suivant
+            String title = comment;
+            comment = "";
+            while (line != null && !isBoard(line)) {
+                String text = line.trim();
+                if (!commentBlock && isTitle(text)) {
+                    title = text.substring(6).trim();
+                } else {
+                    remember(line);
+                }
+                line = readLine();
+            }
+            pending = line;
+            return new Puzzle(title, rows.toArray(new String[0]));
+        }
+        
+        // Retient un commentaire comme titre possible du plateau suivant
+        private void remember(String line) {
+            String text = line.trim();
+            if (skipMetadata(text)) return;
+            if (isTitle(text)) text = text.substring(6);
+            else if (text.startsWith(";")) text = text.substring(1);
+            text = text.trim();
+            if (!text.isEmpty()) comment = text;
+        }
+        
+        // Métadonnée autre que le titre, ou ligne d'un bloc Comment: ... Comment-End
+        private boolean skipMetadata(String text) {
+            if (commentBlock) {
+                if (text.regionMatches(true, 0, "Comment-End", 0, 11)
+                        || text.regionMatches(true, 0, "Comment_End", 0, 11)) {
+                    commentBlock = false;
+                }
+                return true;
+            }
+            if (isTitle(text) || !METADATA.matcher(text).lookingAt()) return false;
+            if (text.equalsIgnoreCase("Comment:")) commentBlock = true;
+            return true;
+        }
+        
+        private static boolean isTitle(String text) {
+            return text.regionMatches(true, 0, "Title:", 0, 6);
+        }
+        
+        // Ligne suivante sans son saut de ligne (\n ou \r\n), null en fin de fichier
+        private String readLine() {
+            if (!source.hasRemaining()) return null;
+            int start = source.position();
+            int end = start;
+            int limit = source.limit();
+            while (end < limit && source.get(end) != '\n') end++;
+            source.position(Math.min(end + 1, limit));
+            if (end > start && source.get(end - 1) == '\r') end--;
+            
+            byte[] bytes = new byte[end - start];
+            source.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        private static boolean isBoard(String line) {
+            boolean wall = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (convert(c) == 0) return false;
+                if (c == '#') wall = true;
+            }
+            return wall;
+        }
+        
+        private static String toSolverGlyphs(String line) {
+            char[] out = new char[line.length()];
+            for (int i = 0; i < out.length; i++) out[i] = convert(line.charAt(i));
+            return new String(out);
+        }
+    }
+}